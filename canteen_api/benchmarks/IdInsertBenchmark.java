@@ -0,0 +1,100 @@
+import java.security.SecureRandom;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.util.HexFormat;
+import java.util.function.Supplier;
+
+import com.sr.app.utils.IdGeneration;
+
+/**
+ * Insert throughput and index size: random keys vs the ids IdGeneration.newId()
+ * hands out (MySQL 8, InnoDB). Run against a scratch schema, never production:
+ *
+ *   mvn -q compile dependency:build-classpath -Dmdep.outputFile=target/cp.txt
+ *   java -cp target/classes:$(cat target/cp.txt) benchmarks/IdInsertBenchmark.java \
+ *       "jdbc:mysql://localhost:3306/scratch?user=root&password=..." 500000
+ *
+ * Both tables have the same columns (ids as VARCHAR(48) ascii_bin, what
+ * db/compact-ids.sql migrates to) and both keys are 26 characters, so key order
+ * is the only difference. Random keys are 13 bytes from SecureRandom in hex, as
+ * unordered as a v4 UUID. Each row is its own transaction, like an order insert.
+ * Raise the row count until the random table's index no longer fits in the
+ * buffer pool, so both cases are measured.
+ *
+ * No results are recorded yet. Nothing in the code depends on a particular
+ * speedup; record numbers here once it has been run.
+ */
+public class IdInsertBenchmark {
+
+	private static final SecureRandom RANDOM = new SecureRandom();
+
+	private static final int USERS = 1000;
+
+	public static void main(String[] args) throws SQLException {
+		if (args.length < 1) {
+			System.err.println("usage: IdInsertBenchmark <jdbc-url> [rows]");
+			System.exit(2);
+		}
+		int rows = args.length > 1 ? Integer.parseInt(args[1]) : 500_000;
+
+		try (Connection connection = DriverManager.getConnection(args[0])) {
+			connection.setAutoCommit(false);
+			// Same users for both tables, so the secondary index sees the same load
+			String[] users = new String[USERS];
+			for (int i = 0; i < USERS; i++) {
+				users[i] = IdGeneration.newId();
+			}
+
+			run(connection, "bench_random_ids", rows, users, IdInsertBenchmark::randomId);
+			run(connection, "bench_ordered_ids", rows, users, IdGeneration::newId);
+		}
+	}
+
+	private static String randomId() {
+		byte[] bytes = new byte[13];
+		RANDOM.nextBytes(bytes);
+		return HexFormat.of().withUpperCase().formatHex(bytes);
+	}
+
+	private static void run(Connection connection, String table, int rows, String[] users, Supplier<String> ids)
+			throws SQLException {
+		try (Statement ddl = connection.createStatement()) {
+			ddl.execute("DROP TABLE IF EXISTS " + table);
+			ddl.execute("CREATE TABLE " + table + " ("
+					+ " id VARCHAR(48) CHARACTER SET ascii COLLATE ascii_bin NOT NULL PRIMARY KEY,"
+					+ " user_id VARCHAR(48) CHARACTER SET ascii COLLATE ascii_bin NOT NULL,"
+					+ " created_at DATETIME(6) NOT NULL,"
+					+ " KEY idx_user (user_id)"
+					+ ") ENGINE = InnoDB");
+		}
+
+		long start = System.nanoTime();
+		try (PreparedStatement insert = connection.prepareStatement("INSERT INTO " + table + " VALUES (?, ?, ?)")) {
+			for (int i = 0; i < rows; i++) {
+				insert.setString(1, ids.get());
+				insert.setString(2, users[i % USERS]);
+				insert.setTimestamp(3, new Timestamp(System.currentTimeMillis()));
+				insert.executeUpdate();
+				connection.commit();
+			}
+		}
+		long elapsedMs = (System.nanoTime() - start) / 1_000_000;
+
+		try (Statement stats = connection.createStatement()) {
+			stats.execute("ANALYZE TABLE " + table);
+			try (ResultSet size = stats.executeQuery("SELECT data_length, index_length FROM information_schema.tables"
+					+ " WHERE table_schema = DATABASE() AND table_name = '" + table + "'")) {
+				size.next();
+				System.out.printf("%-18s %8d rows %8d ms %10.0f rows/s  data %,d B  index %,d B%n", table, rows,
+						elapsedMs, rows * 1000.0 / Math.max(1, elapsedMs), size.getLong(1), size.getLong(2));
+			}
+		}
+		connection.commit();
+	}
+
+}
@@ -0,0 +1,69 @@
+package com.sr.app.config;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Generation number per cache, part of every Redis key ("categories::v3::...").
+ * Clearing a cache bumps its generation, so the old keys are simply never read
+ * again and expire by TTL: constant cost, no KEYS or SCAN over the keyspace.
+ *
+ * The numbers live in one Redis hash; each node keeps a local copy, updated by
+ * TwoLevelCacheManager broadcasts and a periodic resync.
+ */
+@Component
+public class CacheGenerations {
+
+	private static final Logger logger = LoggerFactory.getLogger(CacheGenerations.class);
+
+	private static final String KEY = "cache:generations";
+
+	@Autowired
+	private StringRedisTemplate redisTemplate;
+
+	private final ConcurrentMap<String, Long> generations = new ConcurrentHashMap<>();
+
+	public long current(String cacheName) {
+		return generations.computeIfAbsent(cacheName, this::read);
+	}
+
+	public String keyPrefix(String cacheName) {
+		return cacheName + "::v" + current(cacheName) + "::";
+	}
+
+	// Starts a new namespace for the cache and returns its generation
+	public long bump(String cacheName) {
+		long next = redisTemplate.opsForHash().increment(KEY, cacheName, 1);
+		advance(cacheName, next);
+		return next;
+	}
+
+	// Generations only move forward, late or repeated messages are harmless
+	public void advance(String cacheName, long generation) {
+		generations.merge(cacheName, generation, Math::max);
+	}
+
+	@Scheduled(fixedDelayString = "${app.cache.generation-sync-ms:30000}")
+	public void resync() {
+		try {
+			Map<Object, Object> stored = redisTemplate.opsForHash().entries(KEY);
+			stored.forEach((name, generation) -> advance(name.toString(), Long.parseLong(generation.toString())));
+		} catch (RuntimeException e) {
+			logger.warn("Could not resync cache generations: {}", e.getMessage());
+		}
+	}
+
+	private long read(String cacheName) {
+		Object stored = redisTemplate.opsForHash().get(KEY, cacheName);
+		return stored == null ? 0 : Long.parseLong(stored.toString());
+	}
+
+}
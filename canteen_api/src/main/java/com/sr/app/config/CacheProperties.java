@@ -0,0 +1,59 @@
+package com.sr.app.config;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import lombok.Data;
+
+/**
+ * Per-cache sizing for TwoLevelCacheManager, under app.cache. Caches not listed
+ * in app.cache.caches use app.cache.defaults.
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "app.cache")
+public class CacheProperties {
+
+	private Spec defaults = new Spec();
+
+	private Map<String, Spec> caches = new HashMap<>();
+
+	// Background threads shared by all caches for XFetch early refreshes
+	private int refreshThreads = 2;
+
+	private int refreshQueueSize = 100;
+
+	public Spec specFor(String cacheName) {
+		Spec spec = caches.get(cacheName);
+		if (spec == null) {
+			return defaults;
+		}
+		// Unset fields fall back to the defaults
+		Spec merged = new Spec();
+		merged.setLocalTtl(spec.getLocalTtl() != null ? spec.getLocalTtl() : defaults.getLocalTtl());
+		merged.setLocalMaxSize(spec.getLocalMaxSize() != null ? spec.getLocalMaxSize() : defaults.getLocalMaxSize());
+		merged.setRedisTtl(spec.getRedisTtl() != null ? spec.getRedisTtl() : defaults.getRedisTtl());
+		merged.setEarlyRefreshBeta(spec.getEarlyRefreshBeta() != null ? spec.getEarlyRefreshBeta() : defaults.getEarlyRefreshBeta());
+		return merged;
+	}
+
+	@Data
+	public static class Spec {
+
+		// In-process L1, kept short: it is the bound on staleness if an invalidation is missed
+		private Duration localTtl = Duration.ofSeconds(10);
+
+		private Long localMaxSize = 1000L;
+
+		// Shared Redis L2
+		private Duration redisTtl = Duration.ofMinutes(1);
+
+		// XFetch beta: above 1 refreshes hot keys earlier, 0 turns early refresh off
+		private Double earlyRefreshBeta = 1.0;
+	}
+
+}
@@ -0,0 +1,37 @@
+package com.sr.app.config;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * What TwoLevelCache stores in both tiers: the value plus how long it took to
+ * compute and when it expires, which is what probabilistic early refresh needs.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CachedValue {
+
+	private Object value;
+
+	private long computeMs;
+
+	private long expiresAt;
+
+	/**
+	 * XFetch: refresh ahead of expiry with a probability that grows as expiry
+	 * nears and with how slow the value is to compute, so one caller refreshes a
+	 * hot key before it expires instead of all of them missing at once.
+	 */
+	public boolean shouldRefreshEarly(long now, double beta) {
+		if (expiresAt <= 0) {
+			return false;
+		}
+		double gap = computeMs * beta * -Math.log(1 - ThreadLocalRandom.current().nextDouble());
+		return now + gap >= expiresAt;
+	}
+
+}
@@ -2,8 +2,11 @@ package com.sr.app.config;
 
 import java.util.Arrays;
 
+import jakarta.servlet.DispatcherType;
+
 import org.modelmapper.ModelMapper;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
@@ -32,6 +35,10 @@ public class Config {
 	
 	@Autowired
 	private JwtAuthEntryPoint jwtAuthEntryPoint;
+	
+	// BCrypt cost; raising it rehashes each user's password on their next sign-in
+	@Value("${auth.bcrypt.strength:10}")
+	private int bcryptStrength;
 
 	@Bean
     public SecurityFilterChain securityFilterChain(HttpSecurity http) throws Exception {
@@ -40,11 +47,14 @@ public class Config {
             .csrf(csrf -> csrf.disable())
             .cors(cors->cors.configurationSource(corsConfigurationSource()))
             .authorizeHttpRequests(auth -> auth
+                // SSE streams finish on an async dispatch, the original request was already authorized
+                .dispatcherTypeMatchers(DispatcherType.ASYNC).permitAll()
                 // Signup & Login endpoints open
                 .requestMatchers(
                 		"/api/v1/auth/**",
                 		"/api/v1/category/public/**",
                 		"/api/v1/menu-item/public/**",
+                		"/api/v1/menu/public/**",
                 		"/api/v1/orders/public/**",
                 		"/api/v1/dashboard/public/**").permitAll()
                 // OAuth2 related URLs open
@@ -77,7 +87,7 @@ public class Config {
 	    CorsConfiguration corsConfiguration = new CorsConfiguration();
 	    corsConfiguration.addAllowedOriginPattern("*"); // Accept requests from any origin/device
 	    corsConfiguration.setAllowedMethods(Arrays.asList("GET", "POST", "PUT", "DELETE", "OPTIONS","PATCH"));
-	    corsConfiguration.setAllowedHeaders(Arrays.asList("Authorization", "Content-Type", "X-Requested-With"));
+	    corsConfiguration.setAllowedHeaders(Arrays.asList("Authorization", "Content-Type", "X-Requested-With", "Idempotency-Key"));
 	    corsConfiguration.setAllowCredentials(true); // Allow credentials (cookies, auth headers)
 
 	    UrlBasedCorsConfigurationSource source = new UrlBasedCorsConfigurationSource();
@@ -89,7 +99,7 @@ public class Config {
     @Bean
     public PasswordEncoder passwordEncoder()
     {
-    	return new BCryptPasswordEncoder();
+    	return new BCryptPasswordEncoder(bcryptStrength);
     }
     
     @Bean
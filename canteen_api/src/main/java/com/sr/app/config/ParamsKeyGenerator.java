@@ -0,0 +1,45 @@
+package com.sr.app.config;
+
+import java.lang.reflect.Method;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.util.Locale;
+import java.util.StringJoiner;
+
+import org.springframework.cache.interceptor.KeyGenerator;
+import org.springframework.stereotype.Component;
+
+/**
+ * Cache key built from the method name and every argument, for paginated and
+ * filtered lookups: {@code @Cacheable(keyGenerator = "paramsKeyGenerator")}.
+ *
+ * Strings are lowercased because every cached filter here is case-insensitive,
+ * and null and "" map to the same marker because the queries treat them alike.
+ * Values are URL-encoded, so separators inside a search text can't make two
+ * different calls produce the same key.
+ */
+@Component("paramsKeyGenerator")
+public class ParamsKeyGenerator implements KeyGenerator {
+
+	private static final String NULL = "~";
+
+	@Override
+	public Object generate(Object target, Method method, Object... params) {
+		StringJoiner key = new StringJoiner(":");
+		key.add(method.getName());
+		for (Object param : params) {
+			key.add(normalize(param));
+		}
+		return key.toString();
+	}
+
+	private String normalize(Object param) {
+		if (param == null) {
+			return NULL;
+		}
+		String value = param instanceof String text ? text.toLowerCase(Locale.ROOT) : String.valueOf(param);
+		// URLEncoder always escapes "~" and ":", so they only appear as our own markers
+		return value.isEmpty() ? NULL : URLEncoder.encode(value, StandardCharsets.UTF_8);
+	}
+
+}
@@ -1,13 +1,19 @@
 package com.sr.app.config;
 
-import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
 
 import org.springframework.cache.annotation.EnableCaching;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.data.redis.cache.BatchStrategies;
 import org.springframework.data.redis.cache.RedisCacheConfiguration;
 import org.springframework.data.redis.cache.RedisCacheManager;
+import org.springframework.data.redis.cache.RedisCacheWriter;
 import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
 import org.springframework.data.redis.serializer.GenericJackson2JsonRedisSerializer;
 import org.springframework.data.redis.serializer.RedisSerializationContext;
 import org.springframework.data.redis.serializer.RedisSerializer;
@@ -21,21 +27,60 @@ import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
 public class RedisConfig {
 
     @Bean
-    public RedisCacheManager cacheManager(RedisConnectionFactory connectionFactory) {
+    public TwoLevelCacheManager cacheManager(RedisConnectionFactory connectionFactory, CacheProperties cacheProperties,
+            StringRedisTemplate redisTemplate, RedisMessageListenerContainer listenerContainer,
+            CacheGenerations cacheGenerations) {
 
-        // 🔥 Create custom ObjectMapper that supports LocalDateTime
-        ObjectMapper mapper = new ObjectMapper();
-        mapper.registerModule(new JavaTimeModule());
-        mapper.disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+        // Any clear that still reaches Redis deletes in SCAN batches, never with a blocking KEYS
+        RedisCacheWriter cacheWriter = RedisCacheWriter.nonLockingRedisCacheWriter(connectionFactory, BatchStrategies.scan(1000));
+        RedisCacheManager redisCacheManager = redisCacheManager(cacheWriter, cacheProperties, cacheGenerations);
+
+        // In-process L1 in front of Redis, invalidated on every node through pub/sub
+        TwoLevelCacheManager cacheManager = new TwoLevelCacheManager(redisCacheManager, cacheProperties, redisTemplate, cacheGenerations);
+        listenerContainer.addMessageListener(cacheManager, new ChannelTopic(TwoLevelCacheManager.CHANNEL));
+        return cacheManager;
+    }
 
-        RedisSerializer<Object> serializer = new GenericJackson2JsonRedisSerializer(mapper);
+    static RedisCacheManager redisCacheManager(RedisCacheWriter cacheWriter, CacheProperties cacheProperties,
+            CacheGenerations cacheGenerations) {
 
         RedisCacheConfiguration config = RedisCacheConfiguration.defaultCacheConfig()
-                .serializeValuesWith(RedisSerializationContext.SerializationPair.fromSerializer(serializer))
-                .entryTtl(Duration.ofMinutes(1)); // optional TTL
+                .serializeValuesWith(RedisSerializationContext.SerializationPair.fromSerializer(cacheValueSerializer()))
+                .entryTtl(cacheProperties.getDefaults().getRedisTtl())
+                // "name::v<generation>::key", clearing a cache just moves to the next generation
+                .computePrefixWith(cacheGenerations::keyPrefix);
+
+        // Redis (L2) TTL per cache, from app.cache.caches
+        Map<String, RedisCacheConfiguration> perCache = new HashMap<>();
+        cacheProperties.getCaches().keySet().forEach(name ->
+                perCache.put(name, config.entryTtl(cacheProperties.specFor(name).getRedisTtl())));
 
-        return RedisCacheManager.builder(connectionFactory)
+        RedisCacheManager redisCacheManager = RedisCacheManager.builder(cacheWriter)
                 .cacheDefaults(config)
+                .withInitialCacheConfigurations(perCache)
+                .build();
+        redisCacheManager.afterPropertiesSet();
+        return redisCacheManager;
+    }
+
+    // Cached values are CachedValue around DTOs, pages and lists: every object carries its
+    // class ("@class") so a Redis hit comes back as the type that was stored, not a map
+    static RedisSerializer<Object> cacheValueSerializer() {
+        ObjectMapper mapper = new ObjectMapper();
+        mapper.registerModule(new JavaTimeModule());
+        mapper.disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+
+        return GenericJackson2JsonRedisSerializer.builder()
+                .objectMapper(mapper)
+                .defaultTyping(true)
                 .build();
     }
+
+    // Shared pub/sub subscriber connection, services register their channels on it
+    @Bean
+    public RedisMessageListenerContainer redisMessageListenerContainer(RedisConnectionFactory connectionFactory) {
+        RedisMessageListenerContainer container = new RedisMessageListenerContainer();
+        container.setConnectionFactory(connectionFactory);
+        return container;
+    }
 }
@@ -0,0 +1,224 @@
+package com.sr.app.config;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.RejectedExecutionException;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.cache.Cache;
+import org.springframework.cache.support.SimpleValueWrapper;
+import org.springframework.data.redis.serializer.SerializationException;
+
+/**
+ * A Caffeine L1 in front of a Redis L2 cache. Reads try L1 first, then L2, and
+ * copy L2 hits into L1. Every write or eviction goes to L2 and is broadcast by
+ * TwoLevelCacheManager so the other nodes drop their L1 copy. A clear bumps the
+ * cache's Redis key generation rather than deleting keys.
+ *
+ * Both tiers hold CachedValue. For {@code @Cacheable(sync = true)} a miss is
+ * loaded once per key on this node while other callers wait for it. As a key
+ * nears its Redis expiry, reads may trigger an early refresh (XFetch) that runs
+ * on a background thread while the old value keeps being served. An L1 copy
+ * never outlives the Redis one, so the expiry XFetch looks at is the same in
+ * either tier.
+ *
+ * L1 keys are the same string form RedisCache uses, so a key can be sent over
+ * pub/sub and still match.
+ */
+public class TwoLevelCache implements Cache {
+
+	private static final Logger logger = LoggerFactory.getLogger(TwoLevelCache.class);
+
+	private final String name;
+
+	private final Cache redisCache;
+
+	private final com.github.benmanes.caffeine.cache.Cache<String, CachedValue> localCache;
+
+	private final TwoLevelCacheManager manager;
+
+	private final CacheProperties.Spec spec;
+
+	// Loads in progress on this node, one per key
+	private final ConcurrentMap<String, CompletableFuture<Object>> loading = new ConcurrentHashMap<>();
+
+	TwoLevelCache(String name, Cache redisCache,
+			com.github.benmanes.caffeine.cache.Cache<String, CachedValue> localCache, TwoLevelCacheManager manager,
+			CacheProperties.Spec spec) {
+		this.name = name;
+		this.redisCache = redisCache;
+		this.localCache = localCache;
+		this.manager = manager;
+		this.spec = spec;
+	}
+
+	@Override
+	public String getName() {
+		return name;
+	}
+
+	@Override
+	public Object getNativeCache() {
+		return this;
+	}
+
+	@Override
+	public ValueWrapper get(Object key) {
+		CachedValue entry = lookup(key, localKey(key));
+		return entry == null ? null : new SimpleValueWrapper(entry.getValue());
+	}
+
+	@Override
+	@SuppressWarnings("unchecked")
+	public <T> T get(Object key, Class<T> type) {
+		ValueWrapper wrapper = get(key);
+		Object value = wrapper != null ? wrapper.get() : null;
+		if (value != null && type != null && !type.isInstance(value)) {
+			throw new IllegalStateException("Cached value is not of required type [" + type.getName() + "]: " + value);
+		}
+		return (T) value;
+	}
+
+	@Override
+	@SuppressWarnings("unchecked")
+	public <T> T get(Object key, Callable<T> valueLoader) {
+		String localKey = localKey(key);
+		CachedValue entry = lookup(key, localKey);
+		if (entry == null) {
+			return (T) load(key, localKey, valueLoader);
+		}
+		if (entry.shouldRefreshEarly(System.currentTimeMillis(), spec.getEarlyRefreshBeta())) {
+			refresh(key, localKey, valueLoader, entry);
+		}
+		return (T) entry.getValue();
+	}
+
+	private Object load(Object key, String localKey, Callable<?> valueLoader) {
+		CompletableFuture<Object> mine = new CompletableFuture<>();
+		CompletableFuture<Object> running = loading.putIfAbsent(localKey, mine);
+		if (running != null) {
+			try {
+				return running.join();
+			} catch (CompletionException e) {
+				throw new ValueRetrievalException(key, valueLoader, e.getCause());
+			}
+		}
+		try {
+			return compute(key, localKey, valueLoader, mine);
+		} catch (Exception e) {
+			throw new ValueRetrievalException(key, valueLoader, e);
+		}
+	}
+
+	// Reloads on the manager's refresh pool while callers keep getting the current value
+	private void refresh(Object key, String localKey, Callable<?> valueLoader, CachedValue current) {
+		CompletableFuture<Object> mine = new CompletableFuture<>();
+		if (loading.putIfAbsent(localKey, mine) != null) {
+			return;
+		}
+		try {
+			manager.refreshExecutor().execute(() -> {
+				try {
+					compute(key, localKey, valueLoader, mine);
+				} catch (Exception e) {
+					logger.warn("Early refresh of {} in cache {} failed, keeping the current value: {}", localKey, name,
+							e.getMessage());
+				}
+			});
+		} catch (RejectedExecutionException e) {
+			// Pool busy: the current value is still good, a later read tries again
+			loading.remove(localKey, mine);
+			mine.complete(current.getValue());
+		}
+	}
+
+	private Object compute(Object key, String localKey, Callable<?> valueLoader, CompletableFuture<Object> mine)
+			throws Exception {
+		try {
+			long start = System.currentTimeMillis();
+			Object value = valueLoader.call();
+			long now = System.currentTimeMillis();
+			store(key, localKey, new CachedValue(value, now - start, now + spec.getRedisTtl().toMillis()));
+			mine.complete(value);
+			return value;
+		} catch (Exception | Error e) {
+			// Waiters must never be left blocked on a future nobody completes
+			mine.completeExceptionally(e);
+			throw e;
+		} finally {
+			loading.remove(localKey, mine);
+		}
+	}
+
+	@Override
+	public void put(Object key, Object value) {
+		store(key, localKey(key), new CachedValue(value, 0, System.currentTimeMillis() + spec.getRedisTtl().toMillis()));
+	}
+
+	@Override
+	public void evict(Object key) {
+		redisCache.evict(key);
+		String localKey = localKey(key);
+		localCache.invalidate(localKey);
+		manager.broadcastEvict(name, localKey);
+	}
+
+	// Moves to a new key namespace instead of deleting keys, see CacheGenerations
+	@Override
+	public void clear() {
+		long generation = manager.nextGeneration(name);
+		localCache.invalidateAll();
+		manager.broadcastClear(name, generation);
+	}
+
+	private CachedValue lookup(Object key, String localKey) {
+		CachedValue local = localCache.getIfPresent(localKey);
+		if (local != null) {
+			return local;
+		}
+		ValueWrapper remote;
+		try {
+			remote = redisCache.get(key);
+		} catch (SerializationException e) {
+			// Written by a release with another format: drop it and load it again
+			logger.warn("Unreadable entry {} in cache {}, evicting it: {}", localKey, name, e.getMessage());
+			redisCache.evict(key);
+			return null;
+		}
+		if (remote == null) {
+			return null;
+		}
+		if (!(remote.get() instanceof CachedValue entry)) {
+			logger.warn("Entry {} in cache {} is a {}, not a CachedValue, evicting it", localKey, name,
+					remote.get() == null ? null : remote.get().getClass().getName());
+			redisCache.evict(key);
+			return null;
+		}
+		localCache.put(localKey, entry);
+		return entry;
+	}
+
+	private void store(Object key, String localKey, CachedValue entry) {
+		redisCache.put(key, entry);
+		localCache.put(localKey, entry);
+		manager.broadcastEvict(name, localKey);
+	}
+
+	// Applied for invalidations coming from other nodes, L2 is already up to date
+	void evictLocal(String localKey) {
+		localCache.invalidate(localKey);
+	}
+
+	void clearLocal() {
+		localCache.invalidateAll();
+	}
+
+	static String localKey(Object key) {
+		return String.valueOf(key);
+	}
+
+}
@@ -0,0 +1,162 @@
+package com.sr.app.config;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.data.redis.cache.RedisCacheManager;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+
+/**
+ * Hands out TwoLevelCache instances and carries their invalidations between
+ * nodes over the cache:invalidate channel. Messages are
+ * "node|E|cache|key" for one key and "node|C|cache|generation" for a whole cache.
+ */
+public class TwoLevelCacheManager implements CacheManager, MessageListener {
+
+	private static final Logger logger = LoggerFactory.getLogger(TwoLevelCacheManager.class);
+
+	static final String CHANNEL = "cache:invalidate";
+
+	private final String nodeId = UUID.randomUUID().toString();
+
+	private final RedisCacheManager redisCacheManager;
+
+	private final CacheProperties properties;
+
+	private final StringRedisTemplate redisTemplate;
+
+	private final CacheGenerations generations;
+
+	private final ConcurrentMap<String, TwoLevelCache> caches = new ConcurrentHashMap<>();
+
+	// Early refreshes for every cache; when it is full a refresh is skipped, not queued without bound
+	private final ThreadPoolExecutor refreshExecutor;
+
+	public TwoLevelCacheManager(RedisCacheManager redisCacheManager, CacheProperties properties,
+			StringRedisTemplate redisTemplate, CacheGenerations generations) {
+		this.redisCacheManager = redisCacheManager;
+		this.properties = properties;
+		this.redisTemplate = redisTemplate;
+		this.generations = generations;
+		this.refreshExecutor = new ThreadPoolExecutor(properties.getRefreshThreads(), properties.getRefreshThreads(),
+				0, TimeUnit.MILLISECONDS, new ArrayBlockingQueue<>(properties.getRefreshQueueSize()), r -> {
+					Thread thread = new Thread(r, "cache-refresh");
+					thread.setDaemon(true);
+					return thread;
+				}, new ThreadPoolExecutor.AbortPolicy());
+	}
+
+	@Override
+	public Cache getCache(String name) {
+		return caches.computeIfAbsent(name, this::createCache);
+	}
+
+	@Override
+	public Collection<String> getCacheNames() {
+		return caches.keySet();
+	}
+
+	private TwoLevelCache createCache(String name) {
+		CacheProperties.Spec spec = properties.specFor(name);
+		return new TwoLevelCache(name, redisCacheManager.getCache(name),
+				Caffeine.newBuilder()
+						.maximumSize(spec.getLocalMaxSize())
+						.expireAfter(new LocalExpiry(spec.getLocalTtl()))
+						.build(),
+				this, spec);
+	}
+
+	Executor refreshExecutor() {
+		return refreshExecutor;
+	}
+
+	void broadcastEvict(String cacheName, String localKey) {
+		publish(nodeId + "|E|" + cacheName + "|" + localKey);
+	}
+
+	long nextGeneration(String cacheName) {
+		return generations.bump(cacheName);
+	}
+
+	void broadcastClear(String cacheName, long generation) {
+		publish(nodeId + "|C|" + cacheName + "|" + generation);
+	}
+
+	private void publish(String message) {
+		try {
+			redisTemplate.convertAndSend(CHANNEL, message);
+		} catch (RuntimeException e) {
+			// Other nodes fall back to their short L1 TTL
+			logger.warn("Could not broadcast cache invalidation: {}", e.getMessage());
+		}
+	}
+
+	@Override
+	public void onMessage(Message message, byte[] pattern) {
+		String[] parts = new String(message.getBody()).split("\\|", 4);
+		if (parts.length < 4 || parts[0].equals(nodeId)) {
+			return;
+		}
+		TwoLevelCache cache = caches.get(parts[2]);
+		if ("C".equals(parts[1])) {
+			// L1 first: once the new generation is visible (it is part of catalog ETags) no old entry may be served
+			if (cache != null) {
+				cache.clearLocal();
+			}
+			generations.advance(parts[2], Long.parseLong(parts[3]));
+		} else if (cache != null) {
+			cache.evictLocal(parts[3]);
+		}
+	}
+
+	/**
+	 * An L1 entry lives for localTtl, but never past the Redis expiry of the same
+	 * value: L1 doesn't serve what Redis already dropped, and a value nearing its
+	 * expiry is still seen by reads, so XFetch gets to refresh it.
+	 */
+	static final class LocalExpiry implements Expiry<String, CachedValue> {
+
+		private final long localTtlNanos;
+
+		LocalExpiry(Duration localTtl) {
+			this.localTtlNanos = localTtl.toNanos();
+		}
+
+		@Override
+		public long expireAfterCreate(String key, CachedValue value, long currentTime) {
+			if (value.getExpiresAt() <= 0) {
+				return localTtlNanos;
+			}
+			long untilExpiry = TimeUnit.MILLISECONDS.toNanos(value.getExpiresAt() - System.currentTimeMillis());
+			return Math.max(0, Math.min(localTtlNanos, untilExpiry));
+		}
+
+		@Override
+		public long expireAfterUpdate(String key, CachedValue value, long currentTime, long currentDuration) {
+			return expireAfterCreate(key, value, currentTime);
+		}
+
+		@Override
+		public long expireAfterRead(String key, CachedValue value, long currentTime, long currentDuration) {
+			return currentDuration;
+		}
+
+	}
+
+}
@@ -0,0 +1,52 @@
+package com.sr.app.config;
+
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.CacheControl;
+import org.springframework.web.filter.ShallowEtagHeaderFilter;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+import org.springframework.web.servlet.mvc.WebContentInterceptor;
+
+import com.sr.app.filter.CatalogCacheInterceptor;
+
+@Configuration
+public class WebConfig implements WebMvcConfigurer {
+
+	private static final String DASHBOARD_PATHS = "/api/v1/dashboard/public/**";
+
+	@Autowired
+	private CatalogCacheInterceptor catalogCacheInterceptor;
+
+	@Value("${dashboard.http.max-age-seconds:10}")
+	private long dashboardMaxAgeSeconds;
+
+	@Override
+	public void addInterceptors(InterceptorRegistry registry) {
+		registry.addInterceptor(catalogCacheInterceptor)
+				.addPathPatterns("/api/v1/menu-item/public/**", "/api/v1/category/public/**", "/api/v1/menu/public/**")
+				// carries the user's cart flags, the catalog version doesn't cover it
+				.excludePathPatterns("/api/v1/menu-item/public/user/**")
+				// a delta can grow once an in-flight change commits, without a version bump
+				.excludePathPatterns("/api/v1/menu-item/public/changes");
+
+		WebContentInterceptor dashboardCaching = new WebContentInterceptor();
+		dashboardCaching.addCacheMapping(
+				CacheControl.maxAge(dashboardMaxAgeSeconds, TimeUnit.SECONDS).cachePublic(), DASHBOARD_PATHS);
+		registry.addInterceptor(dashboardCaching).addPathPatterns(DASHBOARD_PATHS);
+	}
+
+	// Dashboard stats come from orders, not the catalog: hash the body so an unchanged one is a 304
+	@Bean
+	public FilterRegistrationBean<ShallowEtagHeaderFilter> dashboardEtagFilter() {
+		FilterRegistrationBean<ShallowEtagHeaderFilter> registration = new FilterRegistrationBean<>(new ShallowEtagHeaderFilter());
+		registration.addUrlPatterns("/api/v1/dashboard/public/*");
+		return registration;
+	}
+
+}
@@ -0,0 +1,11 @@
+package com.sr.app.constants;
+
+public class MenuChangeConstants {
+
+	public static final String ITEM = "ITEM";
+	public static final String CATEGORY = "CATEGORY";
+
+	public static final String UPSERT = "UPSERT";
+	public static final String DELETE = "DELETE";
+
+}
@@ -1,5 +1,9 @@
 package com.sr.app.constants;
 
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
 public class OrderStatusConstants {
 	
     public static final String PENDING = "PENDING";
@@ -8,4 +12,32 @@ public class OrderStatusConstants {
     public static final String DELIVERED = "DELIVERED";
     public static final String CANCELLED = "CANCELLED";
     public static final String FAILED = "FAILED";
+    
+    public static final List<String> ALL = List.of(PENDING, PAID, PREPARING, DELIVERED, CANCELLED, FAILED);
+    
+    // target status -> statuses an order may be in to move there (PENDING -> PAID -> PREPARING -> DELIVERED)
+    private static final Map<String, Set<String>> ALLOWED_SOURCES = Map.of(
+    		PAID, Set.of(PENDING),
+    		PREPARING, Set.of(PAID),
+    		DELIVERED, Set.of(PREPARING),
+    		CANCELLED, Set.of(PENDING, PAID, PREPARING),
+    		FAILED, Set.of(PENDING));
+    
+    /**
+     * Maps free-text status (any case) to its constant, or null if unknown
+     */
+    public static String normalize(String status) {
+    	if (status == null) {
+    		return null;
+    	}
+    	String upper = status.trim().toUpperCase();
+    	return ALL.contains(upper) ? upper : null;
+    }
+    
+    /**
+     * Statuses an order can move to {@code target} from, empty if nothing can
+     */
+    public static Set<String> allowedSources(String target) {
+    	return ALLOWED_SOURCES.getOrDefault(target, Set.of());
+    }
 }
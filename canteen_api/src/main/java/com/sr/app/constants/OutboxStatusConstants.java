@@ -0,0 +1,10 @@
+package com.sr.app.constants;
+
+public class OutboxStatusConstants {
+
+	public static final String PENDING = "PENDING";
+	public static final String PROCESSING = "PROCESSING";
+	public static final String DONE = "DONE";
+	public static final String FAILED = "FAILED";
+	
+}
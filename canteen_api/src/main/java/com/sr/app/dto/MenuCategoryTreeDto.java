@@ -0,0 +1,21 @@
+package com.sr.app.dto;
+
+import java.util.List;
+
+import lombok.Data;
+
+@Data
+public class MenuCategoryTreeDto {
+
+	private String categoryId;
+
+	private String categoryName;
+
+	private String slugName;
+
+	private String imgUrl;
+
+	// Available items only, in name order
+	private List<MenuItemDto> items;
+
+}
@@ -0,0 +1,21 @@
+package com.sr.app.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// Just enough for an autocomplete row
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class MenuSuggestionDto {
+
+	private String itemId;
+
+	private String itemName;
+
+	private String categoryName;
+
+	private Double price;
+
+}
@@ -0,0 +1,35 @@
+package com.sr.app.dto;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import com.sr.app.response.OrdersCountsResponse;
+
+import lombok.Data;
+
+@Data
+public class OrderEventDto {
+
+	public static final String ORDER_CREATED = "ORDER_CREATED";
+	public static final String STATUS_CHANGED = "STATUS_CHANGED";
+
+	// increasing across all nodes, sent as the SSE id for Last-Event-ID replay
+	private long id;
+
+	private String type;
+
+	private List<String> orderIds;
+
+	private String status;
+
+	// only for ORDER_CREATED
+	private OrdersDto order;
+
+	private UserDto user;
+
+	// counts right after this event, so screens needn't refetch them
+	private OrdersCountsResponse stats;
+
+	private LocalDateTime occurredAt;
+
+}
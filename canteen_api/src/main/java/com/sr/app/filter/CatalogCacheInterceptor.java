@@ -0,0 +1,75 @@
+package com.sr.app.filter;
+
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+import com.sr.app.config.CacheGenerations;
+import com.sr.app.services.CatalogVersion;
+import com.sr.app.services.MenuCatalog;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * Conditional GET for the public menu and category endpoints, answered before
+ * the controller runs. The ETag is the catalog version plus a stamp of what this
+ * node serves from (the menu snapshot's content version, the categories cache
+ * generation). A node that hasn't applied a change yet therefore never hands
+ * out the new ETag with old data.
+ */
+@Component
+public class CatalogCacheInterceptor implements HandlerInterceptor {
+
+	// The ETag for this request, so controllers can key cached responses on it
+	public static final String ETAG_ATTRIBUTE = "com.sr.app.filter.CatalogCacheInterceptor.etag";
+
+	private static final String CATEGORY_PATH = "/api/v1/category/";
+
+	private static final String CATEGORIES_CACHE = "categories";
+
+	@Autowired
+	private CatalogVersion catalogVersion;
+
+	@Autowired
+	private MenuCatalog menuCatalog;
+
+	@Autowired
+	private CacheGenerations cacheGenerations;
+
+	@Value("${catalog.http.max-age-seconds:30}")
+	private long maxAgeSeconds;
+
+	@Override
+	public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+		String method = request.getMethod();
+		if (!"GET".equals(method) && !"HEAD".equals(method)) {
+			return true;
+		}
+
+		long version = catalogVersion.current();
+		if (version == CatalogVersion.UNKNOWN) {
+			response.setHeader(HttpHeaders.CACHE_CONTROL, CacheControl.noCache().getHeaderValue());
+			return true;
+		}
+
+		String stamp = request.getRequestURI().startsWith(CATEGORY_PATH)
+				? "c" + cacheGenerations.current(CATEGORIES_CACHE)
+				: "m" + Long.toHexString(menuCatalog.current().contentVersion());
+
+		// Browsers and the proxy may reuse it briefly, then revalidate with If-None-Match
+		response.setHeader(HttpHeaders.CACHE_CONTROL,
+				CacheControl.maxAge(maxAgeSeconds, TimeUnit.SECONDS).cachePublic().mustRevalidate().getHeaderValue());
+
+		String etag = version + "-" + stamp;
+		request.setAttribute(ETAG_ATTRIBUTE, etag);
+		return !new ServletWebRequest(request, response).checkNotModified(etag);
+	}
+
+}
@@ -1,5 +1,11 @@
 package com.sr.app.mapper;
 
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
 import org.modelmapper.ModelMapper;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
@@ -73,6 +79,25 @@ public class Mapper {
 		return menuItemDto;
 	}
 	
+	public MenuItemCartInfoDto toDto(MenuItemDto menuItem,boolean isSaved)
+	{
+		MenuItemCartInfoDto menuItemDto = new MenuItemCartInfoDto();
+		
+		menuItemDto.setCategoryId(menuItem.getCategoryId());
+		menuItemDto.setCategoryName(menuItem.getCategoryName());
+		menuItemDto.setDescription(menuItem.getDescription());
+		menuItemDto.setImgUrl(menuItem.getImgUrl());
+		menuItemDto.setIsAvailable(menuItem.getIsAvailable());
+		menuItemDto.setItemId(menuItem.getItemId());
+		menuItemDto.setItemName(menuItem.getItemName());
+		menuItemDto.setPrice(menuItem.getPrice());
+		menuItemDto.setCreatedAt(menuItem.getCreatedAt());
+		menuItemDto.setUpdatedAt(menuItem.getUpdatedAt());
+		menuItemDto.setSaved(isSaved);
+		
+		return menuItemDto;
+	}
+	
 	public UserDto toDto(Users users)
 	{
 		return modelMapper.map(users, UserDto.class);
@@ -119,4 +144,25 @@ public class Mapper {
 		
 	}
 	
+	// Same as toUserOrderDto for a whole page, with one query for all the users
+	public List<OrderUserDto> toUserOrderDtos(List<Orders> orders)
+	{
+		List<String> userIds = orders.stream().map(Orders::getUserId).filter(Objects::nonNull).distinct().toList();
+		
+		Map<String, Users> usersById = userRepo.findAllById(userIds).stream()
+				.collect(Collectors.toMap(Users::getUserId, Function.identity()));
+		
+		return orders.stream().map(o -> {
+			OrderUserDto orderUserDto = new OrderUserDto();
+			orderUserDto.setOrder(toDto(o));
+			
+			Users user = o.getUserId() != null ? usersById.get(o.getUserId()) : null;
+			if(user != null)
+			{
+				orderUserDto.setUser(toDto(user));
+			}
+			return orderUserDto;
+		}).toList();
+	}
+	
 }
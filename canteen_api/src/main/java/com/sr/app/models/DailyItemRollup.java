@@ -0,0 +1,58 @@
+package com.sr.app.models;
+
+import java.io.Serializable;
+import java.time.LocalDate;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.IdClass;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Quantity and revenue of each menu item in orders that reached a terminal
+ * status, per day the order was placed. Maintained by SalesRollup.
+ */
+@Data
+@Entity
+@Table(name = "daily_item_rollup")
+@IdClass(DailyItemRollup.Key.class)
+public class DailyItemRollup {
+
+	@Id
+	@Column(name = "sales_day")
+	private LocalDate day;
+
+	@Id
+	@Column(name = "status", length = 16)
+	private String status;
+
+	@Id
+	@Column(name = "item_id")
+	private String itemId;
+
+	@Column(name = "quantity", nullable = false)
+	private Long quantity;
+
+	@Column(name = "revenue", nullable = false)
+	private Double revenue;
+
+	@Data
+	@NoArgsConstructor
+	@AllArgsConstructor
+	public static class Key implements Serializable {
+
+		private static final long serialVersionUID = 1L;
+
+		private LocalDate day;
+
+		private String status;
+
+		private String itemId;
+
+	}
+
+}
@@ -0,0 +1,52 @@
+package com.sr.app.models;
+
+import java.io.Serializable;
+import java.time.LocalDate;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.IdClass;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Orders that reached a terminal status (DELIVERED, CANCELLED), summed per day
+ * they were placed. Maintained by SalesRollup.
+ */
+@Data
+@Entity
+@Table(name = "daily_order_rollup")
+@IdClass(DailyOrderRollup.Key.class)
+public class DailyOrderRollup {
+
+	@Id
+	@Column(name = "sales_day")
+	private LocalDate day;
+
+	@Id
+	@Column(name = "status", length = 16)
+	private String status;
+
+	@Column(name = "order_count", nullable = false)
+	private Long orderCount;
+
+	@Column(name = "revenue", nullable = false)
+	private Double revenue;
+
+	@Data
+	@NoArgsConstructor
+	@AllArgsConstructor
+	public static class Key implements Serializable {
+
+		private static final long serialVersionUID = 1L;
+
+		private LocalDate day;
+
+		private String status;
+
+	}
+
+}
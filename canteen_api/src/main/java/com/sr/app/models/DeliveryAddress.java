@@ -1,13 +1,22 @@
 package com.sr.app.models;
 
+import org.springframework.data.domain.Persistable;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.Id;
+import jakarta.persistence.PostLoad;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.Transient;
 import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.ToString;
 
 @Data
 @Entity
-public class DeliveryAddress {
+public class DeliveryAddress implements Persistable<String> {
 	
 	@Id
 	private String id;
@@ -27,4 +36,21 @@ public class DeliveryAddress {
     @Column(name = "delivery_pincode", nullable = false)
     private String pincode;
 
+    @Transient
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
+    private boolean isNew = true;
+
+    @JsonIgnore
+    @Override
+    public boolean isNew() {
+        return isNew;
+    }
+
+    @PostLoad
+    @PostPersist
+    void markNotNew() {
+        this.isNew = false;
+    }
+
 }
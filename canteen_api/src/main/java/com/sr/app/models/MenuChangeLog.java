@@ -0,0 +1,41 @@
+package com.sr.app.models;
+
+import java.time.LocalDateTime;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import lombok.Data;
+
+/**
+ * Append-only record of menu item and category writes. The auto-increment
+ * version is the cursor clients pass to /menu-item/public/changes.
+ */
+@Data
+@Entity
+@Table(name = "menu_change_log", indexes = {
+		@Index(name = "idx_menu_change_changed_at", columnList = "changed_at")
+})
+public class MenuChangeLog {
+
+	@Id
+	@GeneratedValue(strategy = GenerationType.IDENTITY)
+	private Long version;
+
+	@Column(name = "entity_type", nullable = false, length = 16)
+	private String entityType;
+
+	@Column(name = "entity_id", nullable = false, length = 48)
+	private String entityId;
+
+	@Column(name = "operation", nullable = false, length = 16)
+	private String operation;
+
+	@Column(name = "changed_at", nullable = false)
+	private LocalDateTime changedAt = LocalDateTime.now();
+
+}
@@ -1,15 +1,25 @@
 package com.sr.app.models;
 
+import org.springframework.data.domain.Persistable;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
+import jakarta.persistence.FetchType;
 import jakarta.persistence.Id;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
+import jakarta.persistence.PostLoad;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.Transient;
 import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.ToString;
 
 @Data
 @Entity
-public class OrderItem {
+public class OrderItem implements Persistable<String> {
 	
 	    @Id
 	    private String orderItemId;
@@ -29,8 +39,34 @@ public class OrderItem {
 	    @Column(name = "item_image_url")
 	    private String imageUrl;
 	    
-	    @ManyToOne
+	    @JsonIgnore
+	    @ToString.Exclude
+	    @EqualsAndHashCode.Exclude
+	    @ManyToOne(fetch = FetchType.LAZY)
 	    @JoinColumn(name = "order_id")
 	    private Orders order;
+	    
+	    @Transient
+	    @ToString.Exclude
+	    @EqualsAndHashCode.Exclude
+	    private boolean isNew = true;
+	    
+	    @JsonIgnore
+	    @Override
+	    public String getId() {
+	    	return orderItemId;
+	    }
+	    
+	    @JsonIgnore
+	    @Override
+	    public boolean isNew() {
+	    	return isNew;
+	    }
+	    
+	    @PostLoad
+	    @PostPersist
+	    void markNotNew() {
+	    	this.isNew = false;
+	    }
 	
 }
@@ -0,0 +1,86 @@
+package com.sr.app.models;
+
+import java.time.LocalDateTime;
+
+import org.springframework.data.domain.Persistable;
+
+import com.sr.app.constants.OutboxStatusConstants;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.PostLoad;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.Table;
+import jakarta.persistence.Transient;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.ToString;
+
+/**
+ * Side-effects of a newly created order (gateway order, cart clear),
+ * written in the same transaction as the order and drained by OrderOutboxDispatcher.
+ */
+@Data
+@Entity
+@Table(name = "order_outbox", indexes = {
+		@Index(name = "idx_outbox_status_next_attempt", columnList = "status, next_attempt_at"),
+		@Index(name = "idx_outbox_order_id", columnList = "order_id")
+})
+public class OrderOutbox implements Persistable<String> {
+
+	@Id
+	private String id;
+
+	@Column(name = "order_id", nullable = false)
+	private String orderId;
+
+	@Column(name = "user_id", nullable = false)
+	private String userId;
+
+	@Column(name = "amount", nullable = false)
+	private Double amount;
+
+	@Column(name = "status", nullable = false)
+	private String status = OutboxStatusConstants.PENDING;
+
+	@Column(name = "attempts", nullable = false)
+	private Integer attempts = 0;
+
+	@Column(name = "razorpay_order_id")
+	private String razorpayOrderId;
+
+	@Column(name = "last_error", length = 500)
+	private String lastError;
+
+	@Column(name = "next_attempt_at", nullable = false)
+	private LocalDateTime nextAttemptAt = LocalDateTime.now();
+
+	// a claimed row whose lease has run out is picked up again (dispatcher died mid-flight)
+	@Column(name = "locked_until")
+	private LocalDateTime lockedUntil;
+
+	@Column(name = "created_at")
+	private LocalDateTime createdAt = LocalDateTime.now();
+
+	@Column(name = "updated_at")
+	private LocalDateTime updatedAt;
+
+	@Transient
+	@ToString.Exclude
+	@EqualsAndHashCode.Exclude
+	private boolean isNew = true;
+
+	@Override
+	public boolean isNew() {
+		return isNew;
+	}
+
+	@PostLoad
+	@PostPersist
+	void markNotNew() {
+		this.isNew = false;
+	}
+
+}
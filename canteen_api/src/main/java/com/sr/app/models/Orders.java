@@ -4,6 +4,9 @@ import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
 
+import org.springframework.data.domain.Persistable;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.sr.app.constants.OrderStatusConstants;
 
 import jakarta.persistence.CascadeType;
@@ -11,16 +14,27 @@ import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.FetchType;
 import jakarta.persistence.Id;
-import jakarta.persistence.JoinColumn;
+import jakarta.persistence.Index;
 import jakarta.persistence.OneToMany;
 import jakarta.persistence.OneToOne;
+import jakarta.persistence.PostLoad;
+import jakarta.persistence.PostPersist;
 import jakarta.persistence.Table;
+import jakarta.persistence.Transient;
 import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.ToString;
 
 @Data
 @Entity
-@Table(name = "orders")
-public class Orders {
+@Table(name = "orders", indexes = {
+		@Index(name = "idx_orders_last_transition_id", columnList = "last_transition_id"),
+		// keyset pagination (createdAt DESC, orderId DESC), per listing filter
+		@Index(name = "idx_orders_created_at", columnList = "created_at, order_id"),
+		@Index(name = "idx_orders_status_created_at", columnList = "status, created_at, order_id"),
+		@Index(name = "idx_orders_user_created_at", columnList = "user_id, created_at, order_id")
+})
+public class Orders implements Persistable<String> {
     
 	@Id
     @Column(name = "order_id", unique = true, nullable = false)
@@ -38,14 +52,21 @@ public class Orders {
     @Column(name = "status", nullable = false)
     private String status = OrderStatusConstants.PENDING;
 
+    // status before the last transition, written by OrderRepo.transitionStatus
+    @Column(name = "previous_status")
+    private String previousStatus;
+
+    // tags the rows moved by one (bulk) transition so the caller can read back what changed
+    @Column(name = "last_transition_id")
+    private String lastTransitionId;
+
     @Column(name = "total_amount", nullable = false)
     private Double totalAmount;
 
-    @OneToOne
+    @OneToOne(cascade = CascadeType.PERSIST)
     private DeliveryAddress deliveryAddress;
 
-    @OneToMany(cascade = CascadeType.ALL, fetch = FetchType.LAZY)
-    @JoinColumn(name = "order_id")
+    @OneToMany(mappedBy = "order", cascade = CascadeType.ALL, fetch = FetchType.LAZY)
     private List<OrderItem> items = new ArrayList<>();
 
     @Column(name = "created_at")
@@ -54,5 +75,33 @@ public class Orders {
     @Column(name = "updated_at")
     private LocalDateTime updatedAt;
 
+    // Ids are assigned by us, so tell Spring Data to persist (plain INSERT) instead of merge (SELECT + INSERT)
+    @Transient
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
+    private boolean isNew = true;
+
+    public void addItem(OrderItem item) {
+        item.setOrder(this);
+        items.add(item);
+    }
+
+    @JsonIgnore
+    @Override
+    public String getId() {
+        return orderId;
+    }
+
+    @JsonIgnore
+    @Override
+    public boolean isNew() {
+        return isNew;
+    }
+
+    @PostLoad
+    @PostPersist
+    void markNotNew() {
+        this.isNew = false;
+    }
  
 }
@@ -151,7 +151,7 @@ public class CustomOAuth2SuccessHandler implements AuthenticationSuccessHandler
         // Create user if not exists
         if (user == null) {
             user = new Users();
-            user.setUserId(IdGeneration.generateRandomString());
+            user.setUserId(IdGeneration.newId());
             user.setEmail(email);
             user.setName(name);
             user.setRole(UserConstants.CUSTOMER);
@@ -0,0 +1,14 @@
+package com.sr.app.request;
+
+import java.util.List;
+
+import lombok.Data;
+
+@Data
+public class BulkStatusUpdateRequest {
+
+	private List<String> orderIds;
+	
+	private String status;
+	
+}
@@ -0,0 +1,25 @@
+package com.sr.app.response;
+
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BulkStatusUpdateResponse {
+
+	private String status;
+	
+	private int requested;
+	
+	private int updated;
+	
+	private List<String> updatedOrderIds;
+	
+	// not found, or not in a status that can move to the requested one
+	private List<String> rejectedOrderIds;
+	
+}
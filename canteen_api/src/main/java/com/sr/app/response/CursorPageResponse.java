@@ -0,0 +1,22 @@
+package com.sr.app.response;
+
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.RequiredArgsConstructor;
+
+@AllArgsConstructor
+@RequiredArgsConstructor
+@Data
+public class CursorPageResponse<T> {
+
+	private List<T> content;
+	private int pageSize;
+	// pass back as ?cursor= for the next page, null on the last page
+	private String nextCursor;
+	private boolean hasNext;
+	// only filled when asked for (withTotal=true), it costs a COUNT over the table
+	private Long totalElements;
+
+}
@@ -0,0 +1,31 @@
+package com.sr.app.response;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import com.sr.app.dto.CategoryDto;
+import com.sr.app.dto.MenuItemDto;
+
+import lombok.Data;
+
+/**
+ * What changed in the menu after the client's version. With full set, items and
+ * categories are the whole menu and the client replaces what it holds. Pass
+ * version back as since on the next call.
+ */
+@Data
+public class MenuChangesResponse {
+
+	private long version;
+
+	private boolean full;
+
+	private List<MenuItemDto> items = new ArrayList<>();
+
+	private List<String> deletedItemIds = new ArrayList<>();
+
+	private List<CategoryDto> categories = new ArrayList<>();
+
+	private List<String> deletedCategoryIds = new ArrayList<>();
+
+}
@@ -0,0 +1,21 @@
+package com.sr.app.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class OrderPaymentStatusResponse {
+
+	private String orderId;
+
+	private String razorpayOrderId;
+
+	// PENDING until the gateway order exists, then READY (or FAILED after all retries)
+	private String status;
+
+	private Integer attempts;
+
+}
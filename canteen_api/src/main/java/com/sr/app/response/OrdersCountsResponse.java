@@ -6,6 +6,7 @@ public class OrdersCountsResponse {
 
 	private Long totalOrders;
     private Long pending = 0L;
+    private Long paid = 0L;
     private Long preparing = 0L;
     private Long delivered = 0L;
     private Long cancelled = 0L;
@@ -1,10 +1,13 @@
 package com.sr.app.respos;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Set;
 
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.transaction.annotation.Transactional;
 
 import com.sr.app.models.Cart;
@@ -14,6 +17,13 @@ public interface CartRepo extends JpaRepository<Cart, String> {
 	@Query("SELECT c From Cart c WHERE c.user.userId =:userId AND c.menuItem.itemId = :itemId")
 	public Cart findByUserAndItem(String userId,String itemId);
 	
+	// Which of these items the user has in the cart, one query for a whole menu page
+	@Query("SELECT c.menuItem.itemId FROM Cart c WHERE c.user.userId = :userId AND c.menuItem.itemId IN :itemIds")
+	public Set<String> findItemIdsInCart(@Param("userId") String userId, @Param("itemIds") Collection<String> itemIds);
+	
+	@Query("SELECT COUNT(c) > 0 FROM Cart c WHERE c.user.userId = :userId AND c.menuItem.itemId = :itemId")
+	public boolean existsByUserAndItem(@Param("userId") String userId, @Param("itemId") String itemId);
+	
 	@Query("SELECT c From Cart c WHERE c.user.userId =:userId")
 	public List<Cart> findByUser(String userId);
 	
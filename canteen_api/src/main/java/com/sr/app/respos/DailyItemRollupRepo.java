@@ -0,0 +1,53 @@
+package com.sr.app.respos;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+
+import com.sr.app.models.DailyItemRollup;
+
+public interface DailyItemRollupRepo extends JpaRepository<DailyItemRollup, DailyItemRollup.Key> {
+
+	@Modifying
+	@Query(value = """
+			INSERT INTO daily_item_rollup (sales_day, status, item_id, quantity, revenue)
+			SELECT r.sales_day, r.status, r.item_id, r.quantity, r.revenue FROM (
+			    SELECT DATE(o.created_at) AS sales_day, o.status AS status, oi.item_id AS item_id,
+			           SUM(oi.quantity) AS quantity, SUM(oi.item_price * oi.quantity) AS revenue
+			    FROM orders o JOIN order_item oi ON oi.order_id = o.order_id
+			    WHERE o.last_transition_id = :transitionId AND o.status IN :statuses
+			    GROUP BY DATE(o.created_at), o.status, oi.item_id
+			) r
+			ON DUPLICATE KEY UPDATE
+			    quantity = daily_item_rollup.quantity + r.quantity,
+			    revenue = daily_item_rollup.revenue + r.revenue
+			""", nativeQuery = true)
+	int addTransition(String transitionId, Collection<String> statuses);
+
+	@Modifying
+	@Query("DELETE FROM DailyItemRollup r WHERE r.day >= :from AND r.day < :to")
+	int deleteDays(LocalDate from, LocalDate to);
+
+	@Modifying
+	@Query(value = """
+			INSERT INTO daily_item_rollup (sales_day, status, item_id, quantity, revenue)
+			SELECT r.sales_day, r.status, r.item_id, r.quantity, r.revenue FROM (
+			    SELECT DATE(o.created_at) AS sales_day, o.status AS status, oi.item_id AS item_id,
+			           SUM(oi.quantity) AS quantity, SUM(oi.item_price * oi.quantity) AS revenue
+			    FROM orders o JOIN order_item oi ON oi.order_id = o.order_id
+			    WHERE o.status IN :statuses AND o.created_at >= :from AND o.created_at < :to
+			    GROUP BY DATE(o.created_at), o.status, oi.item_id
+			) r
+			ON DUPLICATE KEY UPDATE quantity = r.quantity, revenue = r.revenue
+			""", nativeQuery = true)
+	int insertDays(Collection<String> statuses, LocalDateTime from, LocalDateTime to);
+
+	@Query("SELECT r.itemId, SUM(r.quantity) FROM DailyItemRollup r WHERE r.status = :status AND r.day >= :from AND r.day < :before GROUP BY r.itemId")
+	List<Object[]> sumQuantityByItemBetween(String status, LocalDate from, LocalDate before);
+
+}
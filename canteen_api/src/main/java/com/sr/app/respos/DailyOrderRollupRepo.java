@@ -0,0 +1,70 @@
+package com.sr.app.respos;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+
+import com.sr.app.models.DailyOrderRollup;
+
+public interface DailyOrderRollupRepo extends JpaRepository<DailyOrderRollup, DailyOrderRollup.Key> {
+
+	// Adds the orders one transitionStatus call moved. The derived table lets the
+	// ON DUPLICATE KEY UPDATE refer to the grouped values.
+	@Modifying
+	@Query(value = """
+			INSERT INTO daily_order_rollup (sales_day, status, order_count, revenue)
+			SELECT r.sales_day, r.status, r.order_count, r.revenue FROM (
+			    SELECT DATE(o.created_at) AS sales_day, o.status AS status,
+			           COUNT(*) AS order_count, COALESCE(SUM(o.total_amount), 0) AS revenue
+			    FROM orders o
+			    WHERE o.last_transition_id = :transitionId AND o.status IN :statuses
+			    GROUP BY DATE(o.created_at), o.status
+			) r
+			ON DUPLICATE KEY UPDATE
+			    order_count = daily_order_rollup.order_count + r.order_count,
+			    revenue = daily_order_rollup.revenue + r.revenue
+			""", nativeQuery = true)
+	int addTransition(String transitionId, Collection<String> statuses);
+
+	@Modifying
+	@Query("DELETE FROM DailyOrderRollup r WHERE r.day >= :from AND r.day < :to")
+	int deleteDays(LocalDate from, LocalDate to);
+
+	// Recomputes [from, to) from the orders, overwriting rows a concurrent transition re-created
+	@Modifying
+	@Query(value = """
+			INSERT INTO daily_order_rollup (sales_day, status, order_count, revenue)
+			SELECT r.sales_day, r.status, r.order_count, r.revenue FROM (
+			    SELECT DATE(o.created_at) AS sales_day, o.status AS status,
+			           COUNT(*) AS order_count, COALESCE(SUM(o.total_amount), 0) AS revenue
+			    FROM orders o
+			    WHERE o.status IN :statuses AND o.created_at >= :from AND o.created_at < :to
+			    GROUP BY DATE(o.created_at), o.status
+			) r
+			ON DUPLICATE KEY UPDATE order_count = r.order_count, revenue = r.revenue
+			""", nativeQuery = true)
+	int insertDays(Collection<String> statuses, LocalDateTime from, LocalDateTime to);
+
+	// Same totals straight from the orders, for the consistency check
+	@Query(value = """
+			SELECT DATE(o.created_at), o.status, COUNT(*), COALESCE(SUM(o.total_amount), 0)
+			FROM orders o
+			WHERE o.status IN :statuses AND o.created_at >= :from AND o.created_at < :to
+			GROUP BY DATE(o.created_at), o.status
+			""", nativeQuery = true)
+	List<Object[]> sumOrders(Collection<String> statuses, LocalDateTime from, LocalDateTime to);
+
+	List<DailyOrderRollup> findByDayGreaterThanEqualAndDayLessThan(LocalDate from, LocalDate to);
+
+	@Query("SELECT r FROM DailyOrderRollup r WHERE r.status = :status AND r.day >= :from AND r.day < :to")
+	List<DailyOrderRollup> findByStatusAndDays(String status, LocalDate from, LocalDate to);
+
+	@Query(value = "SELECT MIN(o.created_at) FROM orders o", nativeQuery = true)
+	LocalDateTime findFirstOrderAt();
+
+}
@@ -0,0 +1,33 @@
+package com.sr.app.respos;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.sr.app.models.MenuChangeLog;
+
+public interface MenuChangeLogRepo extends JpaRepository<MenuChangeLog, Long> {
+
+	List<MenuChangeLog> findByVersionGreaterThanOrderByVersion(Long version, Pageable pageable);
+
+	@Query("SELECT MIN(c.version) FROM MenuChangeLog c")
+	Long findMinVersion();
+
+	@Query("SELECT MAX(c.version) FROM MenuChangeLog c")
+	Long findMaxVersion();
+
+	@Query("SELECT MIN(c.version) FROM MenuChangeLog c WHERE c.changedAt >= :from")
+	Long findMinVersionChangedSince(LocalDateTime from);
+
+	// Rows at or above keepFrom stay however old they are
+	@Transactional
+	@Modifying
+	@Query("DELETE FROM MenuChangeLog c WHERE c.changedAt < :before AND c.version < :keepFrom")
+	int deleteChangedBefore(LocalDateTime before, Long keepFrom);
+
+}
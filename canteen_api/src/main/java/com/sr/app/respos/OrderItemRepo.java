@@ -1,8 +1,9 @@
 package com.sr.app.respos;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 
-import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 
@@ -10,14 +11,23 @@ import com.sr.app.models.OrderItem;
 
 public interface OrderItemRepo extends JpaRepository<OrderItem, String> {
 
-	@Query("SELECT oi.itemId AS itemId, SUM(oi.quantity) AS totalQuantity " +
-		       "FROM OrderItem oi " +
-		       "JOIN oi.order o " +
-		       "WHERE o.status <> 'CANCELLED' " +
-		       "GROUP BY oi.itemId, oi.itemName " +
-		       "ORDER BY totalQuantity DESC")
-		List<Object[]> getTopOrderedItems(Pageable pageable);
+	// Items of the orders one OrderRepo.transitionStatus call moved, placed at or after since
+	@Query("""
+			SELECT oi.itemId, o.createdAt, SUM(oi.quantity) FROM OrderItem oi JOIN oi.order o
+			WHERE o.lastTransitionId = :transitionId AND o.createdAt >= :since
+			GROUP BY oi.itemId, o.createdAt
+			""")
+	List<Object[]> sumQuantityByTransition(String transitionId, LocalDateTime since);
 
+	// Paid orders the daily item rollups don't cover: still PAID or PREPARING, or
+	// DELIVERED on a day the rollups are not read for (placed at or after rolledUpBefore)
+	@Query("""
+			SELECT oi.itemId, SUM(oi.quantity) FROM OrderItem oi JOIN oi.order o
+			WHERE o.createdAt >= :from AND o.createdAt < :before
+			  AND (o.status IN :inProgress OR (o.status = :delivered AND o.createdAt >= :rolledUpBefore))
+			GROUP BY oi.itemId
+			""")
+	List<Object[]> sumPaidQuantityNotRolledUp(LocalDateTime from, LocalDateTime before, Collection<String> inProgress,
+			String delivered, LocalDateTime rolledUpBefore);
 
-	
 }
@@ -0,0 +1,37 @@
+package com.sr.app.respos;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.sr.app.models.OrderOutbox;
+
+public interface OrderOutboxRepo extends JpaRepository<OrderOutbox, String> {
+
+	OrderOutbox findFirstByOrderId(String orderId);
+
+	@Query("""
+			SELECT o.id FROM OrderOutbox o
+			WHERE (o.status = 'PENDING' AND o.nextAttemptAt <= :now)
+			   OR (o.status = 'PROCESSING' AND o.lockedUntil < :now)
+			ORDER BY o.nextAttemptAt
+			""")
+	List<String> findDueIds(LocalDateTime now, Pageable pageable);
+
+	// Only one dispatcher (on any node) wins the claim for a row
+	@Transactional
+	@Modifying
+	@Query("""
+			UPDATE OrderOutbox o SET o.status = 'PROCESSING', o.lockedUntil = :lockedUntil, o.updatedAt = :now
+			WHERE o.id = :id
+			  AND ((o.status = 'PENDING' AND o.nextAttemptAt <= :now)
+			    OR (o.status = 'PROCESSING' AND o.lockedUntil < :now))
+			""")
+	int claim(String id, LocalDateTime now, LocalDateTime lockedUntil);
+
+}
@@ -1,12 +1,15 @@
 package com.sr.app.respos;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.transaction.annotation.Transactional;
 
 import com.sr.app.models.Orders;
 
@@ -16,45 +19,79 @@ public interface OrderRepo extends JpaRepository<Orders, String> {
 	Orders findByRazorpayOrderId(String razorpayOrderId);
 	
 	
+	@Transactional
+	@Modifying
+	@Query("UPDATE Orders o SET o.razorpayOrderId = :razorpayOrderId, o.updatedAt = :now WHERE o.orderId = :orderId AND o.razorpayOrderId IS NULL")
+	int setRazorpayOrderId(String orderId, String razorpayOrderId, LocalDateTime now);
+	
+	// Compare-and-set: only rows still in one of fromStatuses move. previousStatus is assigned
+	// before status because MySQL evaluates SET left to right, so it captures the old value.
+	@Transactional
+	@Modifying
+	@Query("""
+			UPDATE Orders o
+			SET o.previousStatus = o.status, o.status = :status,
+			    o.lastTransitionId = :transitionId, o.updatedAt = :now
+			WHERE o.orderId IN :orderIds AND o.status IN :fromStatuses
+			""")
+	int transitionStatus(Collection<String> orderIds, Collection<String> fromStatuses, String status, String transitionId, LocalDateTime now);
+	
+	@Query("SELECT o.orderId FROM Orders o WHERE o.lastTransitionId = :transitionId")
+	List<String> findOrderIdsByTransition(String transitionId);
+	
+	@Query("SELECT o.status FROM Orders o WHERE o.orderId = :orderId")
+	String findStatusByOrderId(String orderId);
+	
+	@Query("SELECT o.razorpayOrderId FROM Orders o WHERE o.orderId = :orderId")
+	String findRazorpayOrderIdByOrderId(String orderId);
+	
 	@Query("SELECT o From Orders o where o.userId =:userId")
 	Page<Orders> findByUser(String userId,Pageable pageable);
 	
 	@Query("SELECT o From Orders o where :status IS NULL OR o.status =:status")
 	Page<Orders> findByStatus(String status,Pageable pageable);
 	
-	@Query("SELECT COUNT(o) From Orders o where :status IS NULL OR o.status =:status")
-    Long countOrderByStatus(String status);
+	// Keyset pages: newest first, ties broken by orderId, no OFFSET and no COUNT
+	@Query("""
+			SELECT o FROM Orders o
+			WHERE (:status IS NULL OR o.status = :status)
+			ORDER BY o.createdAt DESC, o.orderId DESC
+			""")
+	List<Orders> findFirstPageByStatus(String status, Pageable pageable);
 	
 	@Query("""
-		    SELECT COALESCE(SUM(o.totalAmount), 0)
-		    FROM Orders o
-		    WHERE o.status = 'DELIVERED'
-		      AND MONTH(o.createdAt) = MONTH(CURRENT_DATE)
-		      AND YEAR(o.createdAt) = YEAR(CURRENT_DATE)
-		    """)
-		Double getCurrentMonthIncome();
+			SELECT o FROM Orders o
+			WHERE (:status IS NULL OR o.status = :status)
+			  AND (o.createdAt < :createdAt OR (o.createdAt = :createdAt AND o.orderId < :orderId))
+			ORDER BY o.createdAt DESC, o.orderId DESC
+			""")
+	List<Orders> findPageByStatusAfter(String status, LocalDateTime createdAt, String orderId, Pageable pageable);
 	
 	@Query("""
-		    SELECT COALESCE(SUM(o.totalAmount), 0)
-		    FROM Orders o
-		    WHERE o.status = 'DELIVERED'
-		      AND MONTH(o.createdAt) = MONTH(CURRENT_DATE) - 1
-		      AND YEAR(o.createdAt) = YEAR(CURRENT_DATE)
-		    """)
-		Double getPreviousMonthIncome();
-
-	@Query(value = """
-	        SELECT 
-	            DATE_FORMAT(o.created_at, '%Y-%m') AS month,
-	            SUM(o.total_amount) AS income
-	        FROM orders o
-	        WHERE o.status = 'DELIVERED'
-	        AND o.created_at BETWEEN :startDate AND :endDate
-	        GROUP BY DATE_FORMAT(o.created_at, '%Y-%m')
-	        ORDER BY month DESC
-	    """, nativeQuery = true)
-	    List<Object[]> getMonthlyIncome(LocalDateTime startDate, LocalDateTime endDate);
-
-
+			SELECT o FROM Orders o
+			WHERE o.userId = :userId
+			ORDER BY o.createdAt DESC, o.orderId DESC
+			""")
+	List<Orders> findFirstPageByUser(String userId, Pageable pageable);
+	
+	@Query("""
+			SELECT o FROM Orders o
+			WHERE o.userId = :userId
+			  AND (o.createdAt < :createdAt OR (o.createdAt = :createdAt AND o.orderId < :orderId))
+			ORDER BY o.createdAt DESC, o.orderId DESC
+			""")
+	List<Orders> findPageByUserAfter(String userId, LocalDateTime createdAt, String orderId, Pageable pageable);
+	
+	@Query("SELECT COUNT(o) From Orders o where o.userId =:userId")
+	Long countByUser(String userId);
+	
+	@Query("SELECT COUNT(o) From Orders o where :status IS NULL OR o.status =:status")
+    Long countOrderByStatus(String status);
+	
+	@Query("SELECT o.status, COUNT(o) FROM Orders o GROUP BY o.status")
+	List<Object[]> countGroupByStatus();
+	
+	@Query("SELECT o.previousStatus, COUNT(o) FROM Orders o WHERE o.lastTransitionId = :transitionId GROUP BY o.previousStatus")
+	List<Object[]> countByTransitionGroupByPreviousStatus(String transitionId);
 	    
 }
@@ -3,7 +3,9 @@ package com.sr.app.respos;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.transaction.annotation.Transactional;
 
 import com.sr.app.models.Users;
 
@@ -20,6 +22,12 @@ public interface UserRepo extends JpaRepository<Users, String> {
 		              OR LOWER(u.email) LIKE LOWER(CONCAT(:q, '%')))
 		       """)
 		Page<Users> findUserBySearchText(String q, Pageable pageable);
+	
+	// Compare-and-set, so a rehash never overwrites a password changed in between
+	@Transactional
+	@Modifying
+	@Query("UPDATE Users u SET u.password = :newHash WHERE u.userId = :userId AND u.password = :oldHash")
+	int updatePasswordHash(String userId, String oldHash, String newHash);
 
 
 }
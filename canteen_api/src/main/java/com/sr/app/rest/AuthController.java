@@ -1,9 +1,11 @@
 package com.sr.app.rest;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 
@@ -13,6 +15,8 @@ import com.sr.app.response.ApiResponse;
 import com.sr.app.response.TokenResponse;
 import com.sr.app.services.IAuthService;
 
+import jakarta.servlet.http.HttpServletRequest;
+
 
 @RequestMapping("/api/v1/auth")
 @RestController
@@ -23,19 +27,32 @@ public class AuthController {
 	
 	
 	@PostMapping("/signin")
-	public ResponseEntity<?> userSignIn(@RequestBody UserSigninRequest request)
+	public ResponseEntity<?> userSignIn(@RequestBody UserSigninRequest request, HttpServletRequest httpRequest)
 	{
-		TokenResponse response = authService.userSignIn(request);
+		TokenResponse response = authService.userSignIn(request, httpRequest.getRemoteAddr());
 		
 		return ResponseEntity.ok(new ApiResponse<>("success","User Signin Successfully",response));
 		
 	}
 	
 	
+	// Revokes the bearer token, it stops working on every node right away
+	@PostMapping("/logout")
+	public ResponseEntity<?> logout(@RequestHeader(name = HttpHeaders.AUTHORIZATION, required = false) String authHeader)
+	{
+		if (authHeader != null && authHeader.startsWith("Bearer ")) {
+			authService.logout(authHeader.substring(7));
+		}
+		
+		return ResponseEntity.ok(new ApiResponse<>("success","User Logout Successfully",null));
+		
+	}
+	
+	
 	@PostMapping("/signup")
-	public ResponseEntity<?> userSignup(@RequestBody UserSignupRequest request)
+	public ResponseEntity<?> userSignup(@RequestBody UserSignupRequest request, HttpServletRequest httpRequest)
 	{
-		TokenResponse response = authService.userSignup(request);
+		TokenResponse response = authService.userSignup(request, httpRequest.getRemoteAddr());
 		
 		return ResponseEntity.ok(new ApiResponse<>("success","User Signup Successfully",response));
 		
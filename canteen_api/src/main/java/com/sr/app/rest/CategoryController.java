@@ -2,12 +2,15 @@ package com.sr.app.rest;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestAttribute;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RequestPart;
@@ -15,9 +18,11 @@ import org.springframework.web.bind.annotation.RestController;
 import org.springframework.web.multipart.MultipartFile;
 
 import com.sr.app.dto.CategoryDto;
+import com.sr.app.filter.CatalogCacheInterceptor;
 import com.sr.app.response.ApiResponse;
 import com.sr.app.response.PageResponse;
 import com.sr.app.services.ICategoryService;
+import com.sr.app.services.ResponseBytesCache;
 
 @RequestMapping("/api/v1/category")
 @RestController
@@ -27,6 +32,9 @@ public class CategoryController {
 	@Autowired
 	private ICategoryService categoryService;
 	
+	@Autowired
+	private ResponseBytesCache responseCache;
+	
 	@PostMapping("/secure/add")
 	@PreAuthorize("hasRole('ADMIN')")
 	public ResponseEntity<?> addCategory(
@@ -44,8 +52,16 @@ public class CategoryController {
 	public ResponseEntity<?> getCategory(
 			@RequestParam(required = false) String q,
 			@RequestParam(required = false,defaultValue = "0") Integer page,
-			@RequestParam(required = false,defaultValue = "10") Integer limit)
+			@RequestParam(required = false,defaultValue = "10") Integer limit,
+			@RequestAttribute(name = CatalogCacheInterceptor.ETAG_ATTRIBUTE, required = false) String catalogEtag,
+			@RequestHeader(name = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding)
 	{
+		// The unfiltered first page is most of the traffic: served as stored bytes
+		if ((q == null || q.isEmpty()) && page == 0) {
+			return responseCache.respond("category:" + limit, catalogEtag, acceptEncoding,
+					() -> new ApiResponse<>("success", "Categories", categoryService.getAll(q, page, limit)));
+		}
+		
 		PageResponse<CategoryDto> categories = categoryService.getAll(q, page, limit);
 		
 		return ResponseEntity.ok(new ApiResponse<>("success", "Categories", categories));
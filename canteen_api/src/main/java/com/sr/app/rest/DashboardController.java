@@ -31,9 +31,10 @@ public class DashboardController {
 	}
 	
 	@GetMapping("/public/stats/top-orders")
-	public ResponseEntity<?> getTopOrderedItem()
+	public ResponseEntity<?> getTopOrderedItem(@RequestParam(required = false, defaultValue = "all") String window,
+			@RequestParam(required = false, defaultValue = "5") Integer limit)
 	{
-		return ResponseEntity.ok(new ApiResponse<>("success","Income Stats", dashboardService.topOrderedItem()));
+		return ResponseEntity.ok(new ApiResponse<>("success","Income Stats", dashboardService.topOrderedItem(window, limit)));
 	}
 
 }
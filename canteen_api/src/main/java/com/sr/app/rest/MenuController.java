@@ -0,0 +1,37 @@
+package com.sr.app.rest;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestAttribute;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.sr.app.filter.CatalogCacheInterceptor;
+import com.sr.app.response.ApiResponse;
+import com.sr.app.services.IMenuService;
+import com.sr.app.services.ResponseBytesCache;
+
+@RestController
+@RequestMapping("/api/v1/menu")
+public class MenuController {
+
+	@Autowired
+	private IMenuService menuService;
+
+	@Autowired
+	private ResponseBytesCache responseCache;
+
+	// Categories with their available items in one call, for the first paint
+	@GetMapping("/public/tree")
+	public ResponseEntity<?> getMenuTree(
+			@RequestAttribute(name = CatalogCacheInterceptor.ETAG_ATTRIBUTE, required = false) String catalogEtag,
+			@RequestHeader(name = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding)
+	{
+		return responseCache.respond("menu-tree", catalogEtag, acceptEncoding,
+				() -> new ApiResponse<>("success", "Menu", menuService.getMenuTree()));
+	}
+
+}
@@ -1,6 +1,9 @@
 package com.sr.app.rest;
 
+import java.util.List;
+
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.DeleteMapping;
@@ -8,7 +11,9 @@ import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
+import org.springframework.web.bind.annotation.RequestAttribute;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RequestPart;
@@ -16,18 +21,25 @@ import org.springframework.web.bind.annotation.RestController;
 import org.springframework.web.multipart.MultipartFile;
 
 import com.sr.app.dto.MenuItemDto;
+import com.sr.app.filter.CatalogCacheInterceptor;
 import com.sr.app.request.UpdateItemRequest;
 import com.sr.app.response.ApiResponse;
 import com.sr.app.services.IItemService;
+import com.sr.app.services.ResponseBytesCache;
 
 @RestController
 @RequestMapping("/api/v1/menu-item")
 public class MenuItemController {
 
+	// Largest page served; also bounds how many "menu-item:" bodies can be cached
+	private static final int MAX_PAGE_SIZE = 100;
 	
 	@Autowired
 	private IItemService itemService;
 	
+	@Autowired
+	private ResponseBytesCache responseCache;
+	
 	
 	@PostMapping("/secure/add")
 	@PreAuthorize("hasRole('ADMIN')")
@@ -52,9 +64,36 @@ public class MenuItemController {
 			@RequestParam(required = false) Double minPrice,
 	        @RequestParam(required = false) Double maxPrice,
 			@RequestParam(defaultValue = "0",required = false) Integer page,
-			@RequestParam(defaultValue = "10",required = false) Integer limit)
+			@RequestParam(defaultValue = "10",required = false) Integer limit,
+			@RequestAttribute(name = CatalogCacheInterceptor.ETAG_ATTRIBUTE, required = false) String catalogEtag,
+			@RequestHeader(name = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding)
+	{
+		int size = Math.min(limit, MAX_PAGE_SIZE);
+		// The unfiltered first page is most of the traffic: served as stored bytes
+		if ((q == null || q.isBlank()) && (category == null || category.isEmpty())
+				&& minPrice == null && maxPrice == null && page == 0) {
+			return responseCache.respond("menu-item:" + size, catalogEtag, acceptEncoding,
+					() -> new ApiResponse<>("success", "Menu Item", itemService.findAll(null, null, null, null, page, size)));
+		}
+		return ResponseEntity.ok(new ApiResponse<>("success", "Menu Item", itemService.findAll(q,category,minPrice,maxPrice, page, size)));
+	}
+	
+	
+	// Autocomplete while typing, typos tolerated
+	@GetMapping("/public/suggest")
+	public ResponseEntity<?> suggest(
+			@RequestParam String q,
+			@RequestParam(defaultValue = "8",required = false) Integer limit)
 	{
-		return ResponseEntity.ok(new ApiResponse<>("success", "Menu Item", itemService.findAll(q,category,minPrice,maxPrice, page, limit)));
+		return ResponseEntity.ok(new ApiResponse<>("success", "Suggestions", itemService.suggest(q, limit)));
+	}
+	
+	
+	// Only what changed after the version the client holds, or the full menu when it is too far behind
+	@GetMapping("/public/changes")
+	public ResponseEntity<?> getChanges(@RequestParam(required = false) Long since)
+	{
+		return ResponseEntity.ok(new ApiResponse<>("success", "Menu changes", itemService.changesSince(since)));
 	}
 	
 	
@@ -94,6 +133,14 @@ public class MenuItemController {
 	}
 	
 	
+	// Many items in one call, e.g. ?ids=a,b,c for a cart or an order history page
+	@GetMapping("/public/batch")
+	public ResponseEntity<?> getItems(@RequestParam List<String> ids)
+	{
+		return ResponseEntity.ok(new ApiResponse<>("success","Menu Items", itemService.getByIds(ids)));
+	}
+	
+	
 	@GetMapping("/public/{id}")
 	public ResponseEntity<?> getItem(@PathVariable String id)
 	{
@@ -101,9 +148,16 @@ public class MenuItemController {
 	}
 	
 	@GetMapping("/public/category/{id}")
-	public ResponseEntity<?> getItemByCategory(@PathVariable String id)
+	public ResponseEntity<?> getItemByCategory(@PathVariable String id,
+			@RequestHeader(name = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding)
 	{
-		return ResponseEntity.ok(new ApiResponse<>("success","Menu Item", itemService.getItemByCategory(id)));
+		// Keyed on the category's own version, so edits elsewhere in the menu keep it cached.
+		// Version 0 means no item in the catalog carries the id: served without caching,
+		// so made-up ids can't push real categories out.
+		long categoryVersion = itemService.getCategoryVersion(id);
+		String version = categoryVersion == 0 ? null : Long.toString(categoryVersion);
+		return responseCache.respond("menu-item-category:" + id, version, acceptEncoding,
+				() -> new ApiResponse<>("success","Menu Item", itemService.getItemByCategory(id)));
 	}
 	
 }
@@ -2,20 +2,27 @@ package com.sr.app.rest;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import com.sr.app.constants.OrderStatusConstants;
 import com.sr.app.models.Users;
+import com.sr.app.request.BulkStatusUpdateRequest;
 import com.sr.app.request.OrderRequest;
 import com.sr.app.response.ApiResponse;
 import com.sr.app.response.OrderResponse;
 import com.sr.app.services.IOrderService;
+import com.sr.app.services.IdempotencyStore;
+import com.sr.app.services.OrderEventBroadcaster;
 import com.sr.app.services.UserDetailsImpl;
 
 import org.springframework.web.bind.annotation.DeleteMapping;
@@ -32,15 +39,24 @@ public class OrderController {
 	@Autowired
 	private IOrderService orderService;
 	
+	@Autowired
+	private OrderEventBroadcaster orderEventBroadcaster;
+	
+	@Autowired
+	private IdempotencyStore idempotencyStore;
+	
 	
 	@PostMapping("/secure/create")
 	public ResponseEntity<?> createOrder(
 			@AuthenticationPrincipal UserDetailsImpl userDetailsImpl,
+			@RequestHeader(value = "Idempotency-Key", required = false) String idempotencyKey,
 			@RequestBody OrderRequest orderRequest)
 	{
 		Users user = userDetailsImpl.getUser();
 		
-		OrderResponse orderResponse = orderService.create(orderRequest, user.getUserId());
+		// A double tap or retry with the same key gets the first order back instead of a new one
+		OrderResponse orderResponse = idempotencyStore.execute("order-create:" + user.getUserId(), idempotencyKey,
+				orderRequest, OrderResponse.class, () -> orderService.create(orderRequest, user.getUserId()));
 		
 		return ResponseEntity.ok(new ApiResponse<>("success","New Order Created", orderResponse));
 		
@@ -68,6 +84,29 @@ public class OrderController {
 		
 	}
 	
+	// Keyset pages: pass nextCursor back as cursor, each page costs the same as the first
+	@GetMapping("/secure/all/cursor")
+	public ResponseEntity<?> getOrdersByCursor(
+			@AuthenticationPrincipal UserDetailsImpl userDetailsImpl,
+			@RequestParam(required = false) String cursor,
+			@RequestParam(required = false ,defaultValue = "10") Integer limit,
+			@RequestParam(required = false ,defaultValue = "false") boolean withTotal) {
+		
+		return ResponseEntity.ok(new ApiResponse<>("success","Orders", orderService.getOrdersByCursor(userDetailsImpl.getUser().getUserId(), cursor, limit, withTotal)));
+		
+	}
+	
+	@GetMapping("/secure/admin/all/cursor")
+	public ResponseEntity<?> getAllOrdersByCursor(
+			@RequestParam(required = false) String status,
+			@RequestParam(required = false) String cursor,
+			@RequestParam(required = false ,defaultValue = "10") Integer limit,
+			@RequestParam(required = false ,defaultValue = "false") boolean withTotal) {
+		
+		return ResponseEntity.ok(new ApiResponse<>("success","Orders", orderService.getAllOrdersByCursor(status, cursor, limit, withTotal)));
+		
+	}
+	
 	@PutMapping("/secure/")
 	public ResponseEntity<?> updateOrderStatus(@RequestParam String orderId,String status)
 	{
@@ -75,12 +114,37 @@ public class OrderController {
 		return ResponseEntity.ok(new ApiResponse<>("success","Orders status updated", null));
 	}
 	
+	// Kitchen moves a batch of orders in one call, e.g. to PREPARING
+	@PutMapping("/secure/admin/bulk/status")
+	@PreAuthorize("hasRole('ADMIN')")
+	public ResponseEntity<?> updateOrderStatuses(@RequestBody BulkStatusUpdateRequest request)
+	{
+		return ResponseEntity.ok(new ApiResponse<>("success","Orders status updated", orderService.updateStatus(request.getOrderIds(), request.getStatus())));
+	}
+	
+	// Live kitchen board: ORDER_CREATED / STATUS_CHANGED events, reconnects resume from Last-Event-ID or ?since=
+	@GetMapping(path = "/secure/admin/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+	@PreAuthorize("hasRole('ADMIN')")
+	public SseEmitter streamOrders(
+			@RequestHeader(value = "Last-Event-ID", required = false) Long lastEventId,
+			@RequestParam(required = false) Long since)
+	{
+		return orderEventBroadcaster.subscribe(lastEventId != null ? lastEventId : since);
+	}
+	
 	@GetMapping("/secure/{id}")
 	public ResponseEntity<?> getOrder(@PathVariable String id)
 	{
 		return ResponseEntity.ok(new ApiResponse<>("success","Order data", orderService.getOrder(id)));
 	}
 	
+	// Poll after create until the gateway order is READY
+	@GetMapping("/secure/{id}/payment")
+	public ResponseEntity<?> getPaymentStatus(@AuthenticationPrincipal UserDetailsImpl userDetailsImpl, @PathVariable String id)
+	{
+		return ResponseEntity.ok(new ApiResponse<>("success","Order payment status", orderService.getPaymentStatus(id, userDetailsImpl.getUser().getUserId())));
+	}
+	
 	@GetMapping("/secure/stats")
 	public ResponseEntity<?> getOrderStats()
 	{
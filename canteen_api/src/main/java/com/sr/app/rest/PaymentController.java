@@ -5,6 +5,7 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 
@@ -14,6 +15,7 @@ import com.sr.app.request.PaymentVerificationRequest;
 import com.sr.app.response.ApiResponse;
 import com.sr.app.services.IOrderService;
 import com.sr.app.services.IPaymentService;
+import com.sr.app.services.IdempotencyStore;
 import com.sr.app.services.UserDetailsImpl;
 
 @RestController
@@ -26,19 +28,27 @@ public class PaymentController {
 	@Autowired
 	private IOrderService orderService;
 	
+	@Autowired
+	private IdempotencyStore idempotencyStore;
+	
 	@PostMapping("/secure/verify")
-    public ResponseEntity<?> verifyPayment(@RequestBody PaymentVerificationRequest request,@AuthenticationPrincipal UserDetailsImpl userDetailsImpl)
+    public ResponseEntity<?> verifyPayment(@RequestBody PaymentVerificationRequest request,@AuthenticationPrincipal UserDetailsImpl userDetailsImpl,
+    		@RequestHeader(value = "Idempotency-Key", required = false) String idempotencyKey)
     {
 		Users user = userDetailsImpl.getUser();
 		
-		boolean isValid = paymentService.verifyPayment(request.getRazorpayOrderId(), request.getRazorpayPaymentId(), request.getRazorpaySignature(),user.getUserId());
-		
-		if(isValid)
-		{
-			orderService.updateStatus(request.getOrderId(), OrderStatusConstants.PAID);
-		}else {
-			orderService.updateStatus(request.getOrderId(), OrderStatusConstants.FAILED);
-		}
+		// Retried verifications replay the first outcome instead of touching the order again
+		idempotencyStore.execute("payment-verify:" + user.getUserId(), idempotencyKey, request, Boolean.class, () -> {
+			boolean isValid = paymentService.verifyPayment(request.getRazorpayOrderId(), request.getRazorpayPaymentId(), request.getRazorpaySignature(),user.getUserId());
+			
+			if(isValid)
+			{
+				orderService.updateStatus(request.getOrderId(), OrderStatusConstants.PAID);
+			}else {
+				orderService.updateStatus(request.getOrderId(), OrderStatusConstants.FAILED);
+			}
+			return isValid;
+		});
 		
 		return ResponseEntity.ok(new ApiResponse<>("success","Payment veryfied", null));
     }
@@ -12,6 +12,7 @@ import com.sr.app.mapper.Mapper;
 import com.sr.app.response.ApiResponse;
 import com.sr.app.services.IUserService;
 import com.sr.app.services.UserDetailsImpl;
+import com.sr.app.services.UserDetailsServiceImpl;
 import org.springframework.web.bind.annotation.RequestParam;
 
 
@@ -25,11 +26,15 @@ public class UserController {
 	@Autowired
 	private Mapper mapper;
 	
+	@Autowired
+	private UserDetailsServiceImpl userDetailsService;
+	
 	
 	@GetMapping("/secure/auth/profile")
 	public ResponseEntity<?> getUserProfile(@AuthenticationPrincipal UserDetailsImpl userDetailsImpl)
 	{
-		UserDto userDto = mapper.toDto(userDetailsImpl.getUser());
+		// the principal only carries the token claims, the profile needs the full row
+		UserDto userDto = mapper.toDto(userDetailsService.findUser(userDetailsImpl.getUser().getEmail()));
 		
 		return ResponseEntity.ok(new ApiResponse<>("success","Profile Data", userDto));
 		
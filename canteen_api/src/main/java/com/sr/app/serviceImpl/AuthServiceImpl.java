@@ -5,7 +5,6 @@ import java.util.Map;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
-import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 
 import com.sr.app.constants.UserConstants;
@@ -17,8 +16,13 @@ import com.sr.app.response.TokenResponse;
 import com.sr.app.respos.UserRepo;
 import com.sr.app.services.IAuthService;
 import com.sr.app.services.JwtService;
+import com.sr.app.services.LoginThrottle;
+import com.sr.app.services.PasswordHasher;
+import com.sr.app.services.TokenRevocation;
 import com.sr.app.utils.IdGeneration;
 
+import io.jsonwebtoken.Claims;
+
 
 @Service
 public class AuthServiceImpl implements IAuthService {
@@ -27,30 +31,62 @@ public class AuthServiceImpl implements IAuthService {
 	private UserRepo userRepo;
 	
 	@Autowired
-	private PasswordEncoder passwordEncoder;
+	private PasswordHasher passwordHasher;
+	
+	@Autowired
+	private LoginThrottle loginThrottle;
+	
+	@Autowired
+	private TokenRevocation tokenRevocation;
 	
 	@Autowired
 	private JwtService jwtService;
 	
 	@Override
-	public TokenResponse userSignIn(UserSigninRequest request) {
+	public TokenResponse userSignIn(UserSigninRequest request, String clientIp) {
+		
+		// Counted, or refused, before any BCrypt work
+		loginThrottle.acquire(request.getEmail(), clientIp);
 		
 		Users user = userRepo.findByEmail(request.getEmail());
 		
 		if(user == null)
 		{
+			loginThrottle.releaseNetwork(clientIp);
 			throw new AppException("User not found", HttpStatus.NOT_FOUND);
 		}
 		
 		if(user.getPassword() ==null)
 		{
+			loginThrottle.releaseNetwork(clientIp);
 			throw new AppException("Please login using google", HttpStatus.BAD_REQUEST);
 		}
 		
-		if(!passwordEncoder.matches(request.getPassword(), user.getPassword()))
+		boolean matches;
+		try
+		{
+			matches = passwordHasher.matches(request.getPassword(), user.getPassword());
+		}
+		catch(RuntimeException e)
+		{
+			// Turned away (429/503) before the password was checked, so the attempt doesn't count
+			loginThrottle.release(request.getEmail(), clientIp);
+			throw e;
+		}
+		
+		if(!matches)
 		{
 			throw new AppException("Invalid Password", HttpStatus.BAD_REQUEST);
 		}
+		loginThrottle.recordSuccess(request.getEmail(), clientIp);
+		
+		// Hashed at an older, lower cost: store a new hash unless the password changed meanwhile
+		if(passwordHasher.needsUpgrade(user.getPassword()))
+		{
+			String userId = user.getUserId();
+			String oldHash = user.getPassword();
+			passwordHasher.upgradeLater(request.getPassword(), newHash -> userRepo.updatePasswordHash(userId, oldHash, newHash));
+		}
 		
 		Map<String, Object> claims = new HashMap<>();
         claims.put("name", user.getName());
@@ -68,7 +104,9 @@ public class AuthServiceImpl implements IAuthService {
 	}
 
 	@Override
-	public TokenResponse userSignup(UserSignupRequest request) {
+	public TokenResponse userSignup(UserSignupRequest request, String clientIp) {
+		
+		loginThrottle.checkNetwork(clientIp);
          
 		Users user = userRepo.findByEmail(request.getEmail());
 		
@@ -80,9 +118,9 @@ public class AuthServiceImpl implements IAuthService {
 		Users newUser = new Users();
 		newUser.setEmail(request.getEmail());
 		newUser.setName(request.getName());
-		newUser.setPassword(passwordEncoder.encode(request.getPassword()));
+		newUser.setPassword(passwordHasher.encode(request.getPassword()));
 		newUser.setRole(UserConstants.CUSTOMER);
-		newUser.setUserId(IdGeneration.generateRandomString());
+		newUser.setUserId(IdGeneration.newId());
 		
 		newUser = userRepo.save(newUser);
 		
@@ -103,4 +141,15 @@ public class AuthServiceImpl implements IAuthService {
 		
 	}
 
+	@Override
+	public void logout(String token) {
+		
+		// An invalid or expired token is already unusable, nothing to revoke
+		Claims claims = jwtService.parseValidClaims(token);
+		if(claims != null)
+		{
+			tokenRevocation.revoke(claims);
+		}
+	}
+
 }
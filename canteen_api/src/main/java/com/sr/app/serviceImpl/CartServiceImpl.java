@@ -54,7 +54,7 @@ public class CartServiceImpl implements ICartService {
 		if(user !=null && item!=null)
 		{
 			Cart cart = new Cart();
-			cart.setCartId(IdGeneration.generateRandomString());
+			cart.setCartId(IdGeneration.newId());
 			cart.setMenuItem(item);
 			cart.setUser(user);
 			cartRepo.save(cart);
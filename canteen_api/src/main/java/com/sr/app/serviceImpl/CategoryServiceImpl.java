@@ -18,8 +18,10 @@ import com.sr.app.mapper.Mapper;
 import com.sr.app.models.ItemCategory;
 import com.sr.app.response.PageResponse;
 import com.sr.app.respos.CategoryRepo;
+import com.sr.app.services.CatalogVersion;
 import com.sr.app.services.CloudinaryService;
 import com.sr.app.services.ICategoryService;
+import com.sr.app.services.MenuChangeFeed;
 import com.sr.app.utils.IdGeneration;
 
 
@@ -35,6 +37,12 @@ public class CategoryServiceImpl implements ICategoryService{
 	@Autowired
 	private Mapper mapper;
 	
+	@Autowired
+	private CatalogVersion catalogVersion;
+	
+	@Autowired
+	private MenuChangeFeed changeFeed;
+	
 	
 	 // Clear all categories cache when creating a new one
     @CacheEvict(value = "categories", allEntries = true)
@@ -50,7 +58,7 @@ public class CategoryServiceImpl implements ICategoryService{
 		    }
 
 		    ItemCategory itemCategory = new ItemCategory();
-		    itemCategory.setCategoryId(IdGeneration.generateRandomString());
+		    itemCategory.setCategoryId(IdGeneration.newId());
 		    itemCategory.setCategoryName(categoryName);
 		    itemCategory.setSlugName(slugName);
 
@@ -58,17 +66,15 @@ public class CategoryServiceImpl implements ICategoryService{
 		    itemCategory.setImgId(uploadResponse.get("public_id").toString());
 		    itemCategory.setImgUrl(uploadResponse.get("secure_url").toString());
 
-		    itemCategory = categoryRepo.save(itemCategory);
+		    itemCategory = changeFeed.saveCategory(itemCategory);
+		    catalogVersion.bump();
 
 		    return mapper.toDto(itemCategory);
 	}
 
 
  // Cache list of categories
-    @Cacheable(
-        value = "categories",
-        key = "T(String).valueOf(#page).concat('-').concat(#limit)"
-    )
+    @Cacheable(value = "categories", keyGenerator = "paramsKeyGenerator", sync = true)
 	@Override
 	public PageResponse<CategoryDto> getAll(String q, Integer page, Integer limit) {
 		
@@ -89,11 +95,12 @@ public class CategoryServiceImpl implements ICategoryService{
 	public boolean delelte(String id) {
 		
 		try {
-			categoryRepo.deleteById(id);
+			changeFeed.deleteCategory(id);
 		} catch (Exception e) {
 			// TODO: handle exception
 			return false;
 		}
+		catalogVersion.bump();
 		
 		return true;
 	}
@@ -1,7 +1,6 @@
 package com.sr.app.serviceImpl;
 
 import java.time.LocalDate;
-import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 import java.util.ArrayList;
 import java.util.HashMap;
@@ -9,21 +8,24 @@ import java.util.List;
 import java.util.Map;
 
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.data.domain.PageRequest;
-import org.springframework.data.domain.Pageable;
+import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
 
 import com.sr.app.constants.OrderStatusConstants;
-import com.sr.app.models.MenuItems;
+import com.sr.app.models.DailyOrderRollup;
+import com.sr.app.dto.MenuItemDto;
+import com.sr.app.exception.AppException;
 import com.sr.app.request.IncomeDto;
 import com.sr.app.response.AdminDashboardResponse;
 import com.sr.app.response.TopOrdredItemResponse;
 import com.sr.app.respos.CartRepo;
+import com.sr.app.respos.DailyOrderRollupRepo;
 import com.sr.app.respos.MenuItemRespo;
-import com.sr.app.respos.OrderItemRepo;
-import com.sr.app.respos.OrderRepo;
 import com.sr.app.respos.UserRepo;
+import com.sr.app.services.BestSellers;
 import com.sr.app.services.IDashboardService;
+import com.sr.app.services.MenuCatalog;
+import com.sr.app.services.OrderStatsCounter;
 
 @Service
 public class DashboardServiceImpl implements IDashboardService {
@@ -39,23 +41,27 @@ public class DashboardServiceImpl implements IDashboardService {
 	private UserRepo userRepo;
 	
 	@Autowired
-	private OrderRepo orderRepo;
+	private DailyOrderRollupRepo orderRollupRepo;
 	
 	@Autowired
-	private MenuItemRespo itemRespo;
+	private MenuCatalog menuCatalog;
 	
 	@Autowired
-	private OrderItemRepo orderItemRepo;
+	private BestSellers bestSellers;
+	
+	@Autowired
+	private OrderStatsCounter orderStatsCounter;
 
 	@Override
 	public AdminDashboardResponse dashboardResponse() {
 		
 		AdminDashboardResponse adminDashboardResponse = new AdminDashboardResponse();
 		adminDashboardResponse.setCategories(cartRepo.count());
-		adminDashboardResponse.setCurrentMonthIncome(orderRepo.getCurrentMonthIncome());
+		LocalDate currentMonth = LocalDate.now().withDayOfMonth(1);
+		adminDashboardResponse.setCurrentMonthIncome(monthIncome(currentMonth));
 		adminDashboardResponse.setMenuItems(menuItemRespo.count());
-		adminDashboardResponse.setOrders(orderRepo.countOrderByStatus(OrderStatusConstants.DELIVERED));
-		adminDashboardResponse.setPreviousMonthIncome(orderRepo.getPreviousMonthIncome());
+		adminDashboardResponse.setOrders(orderStatsCounter.snapshot().getDelivered());
+		adminDashboardResponse.setPreviousMonthIncome(monthIncome(currentMonth.minusMonths(1)));
 		adminDashboardResponse.setUsers(userRepo.count()-1);
 		
 		
@@ -69,23 +75,13 @@ public class DashboardServiceImpl implements IDashboardService {
         LocalDate end = now.plusMonths(1);                 // next month
         LocalDate start = now.minusMonths(months - 1);     // n months back
 
-        // Query DB
-        List<Object[]> data = orderRepo.getMonthlyIncome(
-                start.atStartOfDay(),
-                end.atStartOfDay()
-        );
-
-        // Convert DB rows to map: month -> income
+        // One rollup row per day, at most ~31 per month
+        DateTimeFormatter formatter = DateTimeFormatter.ofPattern("yyyy-MM");
         Map<String, Double> incomeMap = new HashMap<>();
-        for (Object[] row : data) {
-            String month = (String) row[0];
-            Double income = ((Number) row[1]).doubleValue();
-            incomeMap.put(month, income);
+        for (DailyOrderRollup row : orderRollupRepo.findByStatusAndDays(OrderStatusConstants.DELIVERED, start, end)) {
+            incomeMap.merge(row.getDay().format(formatter), row.getRevenue(), Double::sum);
         }
 
-        // Format YYYY-MM
-        DateTimeFormatter formatter = DateTimeFormatter.ofPattern("yyyy-MM");
-
         // Final result list
         List<IncomeDto> result = new ArrayList<>();
 
@@ -106,40 +102,47 @@ public class DashboardServiceImpl implements IDashboardService {
         return result;
 	}
 	
+	// Delivered revenue of the month starting at monthStart
+	private Double monthIncome(LocalDate monthStart) {
+		return orderRollupRepo.findByStatusAndDays(OrderStatusConstants.DELIVERED, monthStart, monthStart.plusMonths(1))
+				.stream().mapToDouble(DailyOrderRollup::getRevenue).sum();
+	}
+	
 	@Override
-	public List<TopOrdredItemResponse> topOrderedItem() {
-		// TODO Auto-generated method stub
+	public List<TopOrdredItemResponse> topOrderedItem(String window, int limit) {
 		
-		List<TopOrdredItemResponse> response = new ArrayList<>();
+		if(window == null || !BestSellers.WINDOWS.contains(window))
+		{
+			throw new AppException("Window must be one of " + BestSellers.WINDOWS, HttpStatus.BAD_REQUEST);
+		}
 		
-		Pageable topFive = PageRequest.of(0, 5);
+		if(limit < 1 || limit > bestSellers.capacity())
+		{
+			throw new AppException("Limit must be between 1 and " + bestSellers.capacity(), HttpStatus.BAD_REQUEST);
+		}
 		
-		List<Object[]> data = orderItemRepo.getTopOrderedItems(topFive);
+		List<TopOrdredItemResponse> response = new ArrayList<>();
 		
-		for (Object[] row : data) {
-            String itemId = (String) row[0];
-            long count = (long) row[1];
-            
-            if(itemId!=null)
-            {
-            	MenuItems menuItem = menuItemRespo.findById(itemId).orElse(null);
-            	if(menuItem!=null)
-            	{
-            		TopOrdredItemResponse orderData = new TopOrdredItemResponse();
-            		orderData.setCategoryId(menuItem.getCategory().getCategoryId());
-            		orderData.setCategoryName(menuItem.getCategory().getCategoryName());
-            		orderData.setDescription(menuItem.getDescription());
-            		orderData.setImgUrl(menuItem.getImgUrl());
-            		orderData.setIsAvailable(menuItem.getIsAvailable());
-            		orderData.setItemId(itemId);
-            		orderData.setItemName(menuItem.getItemName());
-            		orderData.setPrice(menuItem.getPrice());
-            		orderData.setTotalCount(count);
-            		response.add(orderData);
-            	}
-            }
-            
-        }
+		MenuCatalog.Snapshot catalog = menuCatalog.current();
+		
+		bestSellers.top(window, limit).forEach((itemId, count) -> {
+			// Items since removed from the menu drop out of the list
+			MenuItemDto menuItem = catalog.get(itemId);
+			if(menuItem != null)
+			{
+				TopOrdredItemResponse orderData = new TopOrdredItemResponse();
+				orderData.setCategoryId(menuItem.getCategoryId());
+				orderData.setCategoryName(menuItem.getCategoryName());
+				orderData.setDescription(menuItem.getDescription());
+				orderData.setImgUrl(menuItem.getImgUrl());
+				orderData.setIsAvailable(menuItem.getIsAvailable());
+				orderData.setItemId(itemId);
+				orderData.setItemName(menuItem.getItemName());
+				orderData.setPrice(menuItem.getPrice());
+				orderData.setTotalCount(count);
+				response.add(orderData);
+			}
+		});
 		
 		return response;
 	}
@@ -1,30 +1,34 @@
 package com.sr.app.serviceImpl;
 
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
 
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.cache.annotation.CacheEvict;
-import org.springframework.cache.annotation.Cacheable;
-import org.springframework.data.domain.Page;
-import org.springframework.data.domain.PageRequest;
-import org.springframework.data.domain.Pageable;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
 import org.springframework.web.multipart.MultipartFile;
 
 import com.sr.app.dto.MenuItemCartInfoDto;
 import com.sr.app.dto.MenuItemDto;
+import com.sr.app.dto.MenuSuggestionDto;
 import com.sr.app.exception.AppException;
 import com.sr.app.mapper.Mapper;
 import com.sr.app.models.ItemCategory;
 import com.sr.app.models.MenuItems;
+import com.sr.app.response.MenuChangesResponse;
 import com.sr.app.response.PageResponse;
 import com.sr.app.respos.CartRepo;
 import com.sr.app.respos.CategoryRepo;
 import com.sr.app.respos.MenuItemRespo;
+import com.sr.app.services.CatalogVersion;
 import com.sr.app.services.CloudinaryService;
 import com.sr.app.services.IItemService;
+import com.sr.app.services.MenuCatalog;
+import com.sr.app.services.MenuChangeFeed;
 import com.sr.app.utils.IdGeneration;
 
 @Service
@@ -45,9 +49,21 @@ public class ItemServiceImpl implements IItemService {
     @Autowired
     private CartRepo cartRepo;
 
+    @Autowired
+    private MenuCatalog menuCatalog;
+
+    @Autowired
+    private CatalogVersion catalogVersion;
+
+    @Autowired
+    private MenuChangeFeed changeFeed;
+
+    private static final int MAX_SUGGESTIONS = 20;
+
+    private static final int MAX_BATCH_IDS = 200;
+
 
     // CREATE
-    @CacheEvict(value = "items", allEntries = true)
     @Override
     public MenuItemDto add(String itemName, String description, Double price, String categoryId, MultipartFile img) {
 
@@ -65,7 +81,7 @@ public class ItemServiceImpl implements IItemService {
         newItem.setCategory(itemCategory);
         newItem.setDescription(description);
         newItem.setIsAvailable(true);
-        newItem.setItemId(IdGeneration.generateRandomString());
+        newItem.setItemId(IdGeneration.newId());
         newItem.setItemName(itemName);
         newItem.setPrice(price);
 
@@ -73,14 +89,15 @@ public class ItemServiceImpl implements IItemService {
         newItem.setImgId(uploadResponse.get("public_id").toString());
         newItem.setImgUrl(uploadResponse.get("secure_url").toString());
 
-        newItem = itemRespo.save(newItem);
+        newItem = changeFeed.saveItem(newItem);
+        menuCatalog.itemChanged(newItem.getItemId());
+        catalogVersion.bump();
 
         return mapper.toDto(newItem);
     }
 
 
     // UPDATE
-    @CacheEvict(value = "items", allEntries = true)
     @Override
     public MenuItemDto update(String itemId, String description, Double price, boolean available) {
 
@@ -93,68 +110,62 @@ public class ItemServiceImpl implements IItemService {
         findItem.setPrice(price);
         findItem.setIsAvailable(available);
 
-        return mapper.toDto(itemRespo.save(findItem));
+        MenuItemDto updated = mapper.toDto(changeFeed.saveItem(findItem));
+        menuCatalog.itemChanged(itemId);
+        catalogVersion.bump();
+
+        return updated;
     }
 
 
-    // USER-BASED LIST (no cache)
+    // USER-BASED LIST (catalog + one cart lookup)
     @Override
     public PageResponse<MenuItemCartInfoDto> findAll(
             String userId, String q, String category, Double minPrice, Double maxPrice,
             Integer page, Integer limit) {
 
-        Pageable pageable = PageRequest.of(page, limit);
+        PageResponse<MenuItemDto> items = menuCatalog.current().search(q, category, minPrice, maxPrice, page, limit);
+
+        // One lookup for the whole page instead of one per item
+        Set<String> savedItemIds = userId == null || items.getContent().isEmpty()
+                ? Set.of()
+                : cartRepo.findItemIdsInCart(userId, items.getContent().stream().map(MenuItemDto::getItemId).toList());
 
-        Page<MenuItemCartInfoDto> pageData = itemRespo
-                .findAll(q, category, minPrice, maxPrice, pageable)
-                .map(i -> mapper.toDto(
-                        i,
-                        userId != null && cartRepo.findByUserAndItem(userId, i.getItemId()) != null
-                ));
+        List<MenuItemCartInfoDto> content = items.getContent().stream()
+                .map(i -> mapper.toDto(i, savedItemIds.contains(i.getItemId())))
+                .toList();
 
         return new PageResponse<>(
-                pageData.getContent(),
-                pageData.getNumber(),
-                pageData.getSize(),
-                pageData.getTotalElements(),
-                pageData.getTotalPages(),
-                pageData.isLast()
+                content,
+                items.getNumber(),
+                items.getPageSize(),
+                items.getTotalElements(),
+                items.getTotalPages(),
+                items.isLast()
         );
     }
 
 
-    // GENERIC LIST (CACHED)
+    // GENERIC LIST (served from the in-memory catalog)
     @Override
     public PageResponse<MenuItemDto> findAll(
             String q, String category, Double minPrice, Double maxPrice,
             Integer page, Integer limit) {
 
-        Pageable pageable = PageRequest.of(page, limit);
-
-        Page<MenuItemDto> pageData = itemRespo
-                .findAll(q, category, minPrice, maxPrice, pageable)
-                .map(i -> mapper.toDto(i));
-
-        return new PageResponse<>(
-                pageData.getContent(),
-                pageData.getNumber(),
-                pageData.getSize(),
-                pageData.getTotalElements(),
-                pageData.getTotalPages(),
-                pageData.isLast()
-        );
+        return menuCatalog.current().search(q, category, minPrice, maxPrice, page, limit);
     }
 
 
     // DELETE
-    @CacheEvict(value = "items", allEntries = true)
     @Override
     public boolean delete(String itemId) {
         try {
-            itemRespo.deleteById(itemId);
+            changeFeed.deleteItem(itemId);
         } catch (Exception e) {
             return false;
         }
+        menuCatalog.itemChanged(itemId);
+        catalogVersion.bump();
         return true;
     }
 
@@ -170,7 +181,7 @@ public class ItemServiceImpl implements IItemService {
 
         return mapper.toDto(
                 menuItems,
-                userId != null && cartRepo.findByUserAndItem(userId, menuItems.getItemId()) != null
+                userId != null && cartRepo.existsByUserAndItem(userId, menuItems.getItemId())
         );
     }
 
@@ -188,14 +199,68 @@ public class ItemServiceImpl implements IItemService {
     }
 
 
-    // CATEGORY-WISE ITEMS (optional cache)
-    @Cacheable(value = "itemsByCategory", key = "#categoryId")
+    // BATCH LOOKUP (catalog first, one IN query for the rest)
+    @Override
+    public List<MenuItemDto> getByIds(List<String> itemIds) {
+
+        List<String> ids = itemIds.stream().filter(id -> id != null && !id.isBlank()).distinct().toList();
+        if (ids.size() > MAX_BATCH_IDS) {
+            throw new AppException("At most " + MAX_BATCH_IDS + " item ids per request", HttpStatus.BAD_REQUEST);
+        }
+
+        MenuCatalog.Snapshot catalog = menuCatalog.current();
+        Map<String, MenuItemDto> found = new HashMap<>(ids.size() * 2);
+        List<String> misses = new ArrayList<>();
+        for (String id : ids) {
+            MenuItemDto item = catalog.get(id);
+            if (item != null) {
+                found.put(id, item);
+            } else {
+                misses.add(id);
+            }
+        }
+        // only items this node's snapshot hasn't caught up with yet
+        if (!misses.isEmpty()) {
+            itemRespo.findAllWithCategoryByItemIdIn(misses).forEach(i -> found.put(i.getItemId(), mapper.toDto(i)));
+        }
+
+        // request order, unknown ids left out
+        return ids.stream().map(found::get).filter(Objects::nonNull).toList();
+    }
+
+
+    // CATEGORY-WISE ITEMS (served from the in-memory catalog)
     @Override
     public List<MenuItemDto> getItemByCategory(String categoryId) {
 
-        return itemRespo.findByCategory(categoryId)
-                        .stream()
-                        .map(mapper::toDto)
-                        .toList();
+        return menuCatalog.current().byCategory(categoryId);
+    }
+
+
+    @Override
+    public long getCategoryVersion(String categoryId) {
+
+        return menuCatalog.current().tagVersion(MenuCatalog.Snapshot.categoryTag(categoryId));
+    }
+
+
+    // AUTOCOMPLETE (served from the in-memory catalog)
+    @Override
+    public List<MenuSuggestionDto> suggest(String q, Integer limit) {
+
+        int size = Math.min(Math.max(limit, 1), MAX_SUGGESTIONS);
+
+        return menuCatalog.current().suggest(q, size)
+                          .stream()
+                          .map(i -> new MenuSuggestionDto(i.getItemId(), i.getItemName(), i.getCategoryName(), i.getPrice()))
+                          .toList();
+    }
+
+
+    // DELTA SYNC (kiosk / mobile clients)
+    @Override
+    public MenuChangesResponse changesSince(Long since) {
+
+        return changeFeed.changesSince(since);
     }
 }
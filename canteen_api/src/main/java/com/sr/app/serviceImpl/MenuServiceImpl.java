@@ -0,0 +1,49 @@
+package com.sr.app.serviceImpl;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import com.sr.app.dto.MenuCategoryTreeDto;
+import com.sr.app.dto.MenuItemDto;
+import com.sr.app.models.ItemCategory;
+import com.sr.app.respos.CategoryRepo;
+import com.sr.app.services.IMenuService;
+import com.sr.app.services.MenuCatalog;
+
+@Service
+public class MenuServiceImpl implements IMenuService {
+
+    @Autowired
+    private CategoryRepo categoryRepo;
+
+    @Autowired
+    private MenuCatalog menuCatalog;
+
+
+    // FULL MENU TREE (one categories query + the in-memory catalog)
+    @Override
+    public List<MenuCategoryTreeDto> getMenuTree() {
+
+        MenuCatalog.Snapshot catalog = menuCatalog.current();
+
+        return categoryRepo.findAll().stream()
+                .sorted(Comparator.comparing((ItemCategory c) -> c.getCategoryName() == null ? "" : c.getCategoryName().toLowerCase(Locale.ROOT))
+                        .thenComparing(ItemCategory::getCategoryId))
+                .map(c -> {
+                    MenuCategoryTreeDto node = new MenuCategoryTreeDto();
+                    node.setCategoryId(c.getCategoryId());
+                    node.setCategoryName(c.getCategoryName());
+                    node.setSlugName(c.getSlugName());
+                    node.setImgUrl(c.getImgUrl());
+                    node.setItems(catalog.byCategory(c.getCategoryId()).stream()
+                            .filter(i -> Boolean.TRUE.equals(i.getIsAvailable()))
+                            .toList());
+                    return node;
+                })
+                .toList();
+    }
+}
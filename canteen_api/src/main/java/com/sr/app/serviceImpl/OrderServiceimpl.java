@@ -1,47 +1,58 @@
 package com.sr.app.serviceImpl;
 
 
+import java.time.LocalDateTime;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
-import java.util.UUID;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
-import org.json.JSONObject;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.cache.annotation.CacheEvict;
-import org.springframework.cache.annotation.Cacheable;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
-import com.razorpay.Order;
-import com.razorpay.RazorpayClient;
-import com.razorpay.RazorpayException;
 import com.sr.app.constants.OrderStatusConstants;
+import com.sr.app.constants.OutboxStatusConstants;
 import com.sr.app.dto.OrderUserDto;
 import com.sr.app.dto.OrdersDto;
 import com.sr.app.exception.AppException;
 import com.sr.app.mapper.Mapper;
 import com.sr.app.models.DeliveryAddress;
 import com.sr.app.models.MenuItems;
+import com.sr.app.models.OrderOutbox;
 import com.sr.app.models.OrderItem;
 import com.sr.app.models.Orders;
 import com.sr.app.request.OrderRequest;
 import com.sr.app.request.OrderRequest.OrderItemRequest;
+import com.sr.app.response.BulkStatusUpdateResponse;
+import com.sr.app.response.CursorPageResponse;
+import com.sr.app.response.OrderPaymentStatusResponse;
 import com.sr.app.response.OrderResponse;
 import com.sr.app.response.OrdersCountsResponse;
 import com.sr.app.response.PageResponse;
 import com.sr.app.respos.CartRepo;
-import com.sr.app.respos.DeliveryAddressRepo;
 import com.sr.app.respos.MenuItemRespo;
-import com.sr.app.respos.OrderItemRepo;
+import com.sr.app.respos.OrderOutboxRepo;
 import com.sr.app.respos.OrderRepo;
+import com.sr.app.services.BestSellers;
 import com.sr.app.services.IOrderService;
+import com.sr.app.services.OrderOutboxDispatcher;
+import com.sr.app.services.OrderEventBroadcaster;
+import com.sr.app.services.OrderStatsCounter;
+import com.sr.app.services.SalesRollup;
 import com.sr.app.utils.IdGeneration;
+import com.sr.app.utils.OrderCursor;
+import com.sr.app.utils.TransactionHooks;
 
 @Service
 public class OrderServiceimpl implements IOrderService {
@@ -56,143 +67,238 @@ public class OrderServiceimpl implements IOrderService {
 	private CartRepo cartRepo;
 
 	@Autowired
-	private OrderItemRepo orderItemRepo;
-
+	private OrderOutboxRepo outboxRepo;
+	
 	@Autowired
-	private RazorpayClient razorpayClient;
+	private OrderOutboxDispatcher outboxDispatcher;
 	
 	@Autowired
 	private Mapper mapper;
+	
+	@Autowired
+	private OrderStatsCounter orderStatsCounter;
 
+	@Autowired
+	private OrderEventBroadcaster orderEventBroadcaster;
 	
 	@Autowired
-	private DeliveryAddressRepo deliveryAddressRepo;
+	private SalesRollup salesRollup;
+	
+	@Autowired
+	private BestSellers bestSellers;
+	
+	private static final int MAX_BULK_ORDERS = 200;
+	
+	private static final int MAX_CURSOR_PAGE_SIZE = 100;
 
 	private static final Logger logger = LoggerFactory.getLogger(OrderServiceimpl.class);
 
+	@Transactional
 	@Override
 	public OrderResponse create(OrderRequest orderRequest, String userId) {
 	
-			// Validate items and get complete item details
+			// Validate items and get complete item details (one query for all items)
 			List<OrderItem> orderItems = validateAndGetOrderItems(orderRequest.getItems());
 
 			// Calculate total amount
 			Double totalAmount = orderItems.stream().mapToDouble(item -> item.getPrice() * item.getQuantity()).sum();
 
-			// Create Razorpay order
-			String razorpayOrderId=null;
-			try {
-				razorpayOrderId = createRazorpayOrder(totalAmount);
-			} catch (RazorpayException e) {
-				// TODO Auto-generated catch block
-				e.printStackTrace();
-			}
-
-			// Create and save order
-			Orders order = buildOrder(orderRequest, userId, orderItems, totalAmount, razorpayOrderId);
+			// Order, delivery address and items are persisted by one cascading save:
+			// a single transaction with batched inserts, parent row first
+			Orders order = buildOrder(orderRequest, userId, orderItems, totalAmount);
 			
 			
 			Orders savedOrder = orderRepo.save(order);
 
-			// Clear user's cart
-//			cartRepo.deleteByUser(userId);
+			// Razorpay order, cart clear and stats eviction happen in OrderOutboxDispatcher,
+			// recorded here in the same transaction so they can't be lost
+			OrderOutbox outbox = new OrderOutbox();
+			outbox.setId(IdGeneration.newId());
+			outbox.setOrderId(savedOrder.getOrderId());
+			outbox.setUserId(userId);
+			outbox.setAmount(totalAmount);
+			outboxRepo.save(outbox);
 
-//			logger.info("Order created successfully: {}", savedOrder.getOrderId());
+			OrderUserDto createdOrder = mapper.toUserOrderDtos(List.of(savedOrder)).get(0);
 
-            return new OrderResponse( razorpayOrderId,savedOrder.getOrderId());
+			TransactionHooks.afterCommit(() -> {
+				orderStatsCounter.recordCreated();
+				outboxDispatcher.wakeUp();
+				orderEventBroadcaster.orderCreated(createdOrder);
+			});
+
+			// razorpayOrderId is filled in asynchronously, clients poll getPaymentStatus
+            return new OrderResponse(null, savedOrder.getOrderId());
 
 		
 
 	}
 	
-	@CacheEvict(value = { "orderStats" }, allEntries = true)
 	@Override
+	public OrderPaymentStatusResponse getPaymentStatus(String orderId, String userId) {
+		
+		OrderOutbox outbox = outboxRepo.findFirstByOrderId(orderId);
+		
+		if(outbox == null || !outbox.getUserId().equals(userId))
+		{
+			throw new AppException("Order Not Found", HttpStatus.NOT_FOUND);
+		}
+		
+		String status = "PENDING";
+		if(OutboxStatusConstants.DONE.equals(outbox.getStatus())) status = "READY";
+		else if(OutboxStatusConstants.FAILED.equals(outbox.getStatus())) status = "FAILED";
+		
+		// The order row holds the gateway order as soon as it exists, the outbox copy may lag
+		String razorpayOrderId = orderRepo.findRazorpayOrderIdByOrderId(orderId);
+		
+		return new OrderPaymentStatusResponse(orderId, razorpayOrderId, status, outbox.getAttempts());
+	}
+	
+	@Override
+	@Transactional
 	public void updateStatus(String orderId, String status) {
 	
-		Orders order = orderRepo.findById(orderId).orElse(null);
+		String requestedStatus = toTargetStatus(status);
+		
+		String transitionId = IdGeneration.newId();
 		
-		if(order ==null)
+		int updated = orderRepo.transitionStatus(List.of(orderId), OrderStatusConstants.allowedSources(requestedStatus),
+				requestedStatus, transitionId, LocalDateTime.now());
+		
+		if(updated == 0)
 		{
-			throw new AppException("Order Not Found", HttpStatus.NOT_FOUND);
+			// Nothing moved: explain why with a single-column lookup
+			String currentStatus = orderRepo.findStatusByOrderId(orderId);
+			
+			if(currentStatus == null)
+			{
+				throw new AppException("Order Not Found", HttpStatus.NOT_FOUND);
+			}
+			
+			// Repeated request (e.g. payment verify retry), already where it was asked to go
+			if(currentStatus.equals(requestedStatus))
+			{
+				return;
+			}
+			
+			throw new AppException("Order is " + currentStatus + ", cannot move to " + requestedStatus, HttpStatus.CONFLICT);
+		}
+		
+		orderStatsCounter.recordTransition(transitionId, requestedStatus, updated);
+		salesRollup.recordTransition(transitionId, requestedStatus);
+		bestSellers.recordTransition(transitionId, requestedStatus);
+		TransactionHooks.afterCommit(() -> orderEventBroadcaster.statusChanged(List.of(orderId), requestedStatus));
+	}
+	
+	@Override
+	@Transactional
+	public BulkStatusUpdateResponse updateStatus(List<String> orderIds, String status) {
+		
+		String requestedStatus = toTargetStatus(status);
+		
+		if(orderIds == null || orderIds.isEmpty())
+		{
+			throw new AppException("No orders given", HttpStatus.BAD_REQUEST);
 		}
 		
-         String requestedStatus = null;
+		if(orderIds.size() > MAX_BULK_ORDERS)
+		{
+			throw new AppException("At most " + MAX_BULK_ORDERS + " orders can be updated at once", HttpStatus.BAD_REQUEST);
+		}
+		
+		Set<String> requestedIds = new LinkedHashSet<>(orderIds);
+		String transitionId = IdGeneration.newId();
+		
+		// One conditional UPDATE for the whole batch, no entity loading
+		int updated = orderRepo.transitionStatus(requestedIds, OrderStatusConstants.allowedSources(requestedStatus),
+				requestedStatus, transitionId, LocalDateTime.now());
 		
-		if(status!=null)
+		List<String> updatedIds = updated == 0 ? List.of() : orderRepo.findOrderIdsByTransition(transitionId);
+		Set<String> updatedSet = new HashSet<>(updatedIds);
+		List<String> rejectedIds = requestedIds.stream().filter(id -> !updatedSet.contains(id)).toList();
+		
+		if(updated > 0)
 		{
-			if(status.equalsIgnoreCase("pending")) requestedStatus = OrderStatusConstants.PENDING;
-			else if(status.equalsIgnoreCase("cancelled")) requestedStatus = OrderStatusConstants.CANCELLED;
-			else if(status.equalsIgnoreCase("delivered")) requestedStatus = OrderStatusConstants.DELIVERED;
-			else if(status.equalsIgnoreCase("failed")) requestedStatus = OrderStatusConstants.FAILED;
-			else if(status.equalsIgnoreCase("paid")) requestedStatus = OrderStatusConstants.PAID;
+			orderStatsCounter.recordTransition(transitionId, requestedStatus, updated);
+			salesRollup.recordTransition(transitionId, requestedStatus);
+			bestSellers.recordTransition(transitionId, requestedStatus);
+			TransactionHooks.afterCommit(() -> orderEventBroadcaster.statusChanged(updatedIds, requestedStatus));
 		}
 		
-		order.setStatus(requestedStatus);
+		return new BulkStatusUpdateResponse(requestedStatus, requestedIds.size(), updated, updatedIds, rejectedIds);
+	}
+	
+	private String toTargetStatus(String status) {
+		
+		String requestedStatus = OrderStatusConstants.normalize(status);
 		
-		orderRepo.save(order);
+		if(requestedStatus == null)
+		{
+			throw new AppException("Invalid order status: " + status, HttpStatus.BAD_REQUEST);
+		}
 		
+		if(OrderStatusConstants.allowedSources(requestedStatus).isEmpty())
+		{
+			throw new AppException("Orders cannot be moved to " + requestedStatus, HttpStatus.BAD_REQUEST);
+		}
+		
+		return requestedStatus;
 	}
+	
+	private List<OrderItem> validateAndGetOrderItems(List<OrderItemRequest> itemRequests) {
 
-	private String createRazorpayOrder(Double totalAmount) throws RazorpayException {
-		JSONObject orderRequest = new JSONObject();
-		orderRequest.put("amount", totalAmount * 100); // Convert to paise
-		orderRequest.put("currency", "INR");
-		orderRequest.put("receipt", "order_rcptid_" + System.currentTimeMillis());
-		orderRequest.put("payment_capture", 1);
+		if (itemRequests == null || itemRequests.isEmpty()) {
+			throw new AppException("Order must contain at least one item", HttpStatus.BAD_REQUEST);
+		}
 
-		Order razorpayOrder = razorpayClient.orders.create(orderRequest);
-		return razorpayOrder.get("id");
-	}
+		Set<String> itemIds = itemRequests.stream().map(OrderItemRequest::getItemId).collect(Collectors.toSet());
 
-	private List<OrderItem> validateAndGetOrderItems(List<OrderItemRequest> itemRequests) {
+		Map<String, MenuItems> menuItems = itemRespo.findAllWithCategoryByItemIdIn(itemIds).stream()
+				.collect(Collectors.toMap(MenuItems::getItemId, Function.identity()));
 
 		return itemRequests.stream().map(itemRequest -> {
-			MenuItems menuItem = itemRespo.findById(itemRequest.getItemId()).orElseThrow(
-					() -> new AppException("Menu item not found: " + itemRequest.getItemId(), HttpStatus.NOT_FOUND));
+			MenuItems menuItem = menuItems.get(itemRequest.getItemId());
+
+			if (menuItem == null) {
+				throw new AppException("Menu item not found: " + itemRequest.getItemId(), HttpStatus.NOT_FOUND);
+			}
 
 			if (!menuItem.getIsAvailable()) {
 				throw new AppException("Menu item not available: " + menuItem.getItemName(), HttpStatus.NOT_FOUND);
 			}
 
+			if (itemRequest.getQuantity() == null || itemRequest.getQuantity() < 1) {
+				throw new AppException("Invalid quantity for item: " + menuItem.getItemName(), HttpStatus.BAD_REQUEST);
+			}
+
 			OrderItem orderItem = new OrderItem();
 			orderItem.setImageUrl(menuItem.getImgUrl());
 			orderItem.setItemId(menuItem.getItemId());
 			orderItem.setItemName(menuItem.getItemName());
-			orderItem.setOrderItemId(IdGeneration.generateRandomString());
+			orderItem.setOrderItemId(IdGeneration.newId());
 			orderItem.setPrice(menuItem.getPrice());
 			orderItem.setQuantity(itemRequest.getQuantity());
 
-			orderItem = orderItemRepo.save(orderItem);
-
 			return orderItem;
 		}).collect(Collectors.toList());
 	}
 	
-	private String generateOrderId() {
-        return "ORD_" + System.currentTimeMillis() + "_" + 
-               UUID.randomUUID().toString().substring(0, 8).toUpperCase();
-    }
-
-
-	private Orders buildOrder(OrderRequest orderRequest, String userId, List<OrderItem> orderItems, Double totalAmount,
-			String razorpayOrderId) {
+	private Orders buildOrder(OrderRequest orderRequest, String userId, List<OrderItem> orderItems, Double totalAmount) {
 		Orders order = new Orders();
-		order.setOrderId(generateOrderId());
+		order.setOrderId(IdGeneration.newId());
 		order.setUserId(userId);
-		order.setRazorpayOrderId(razorpayOrderId);
 		order.setTotalAmount(totalAmount);
-		order.setItems(orderItems);
+		orderItems.forEach(order::addItem);
 
 		DeliveryAddress deliveryAddress = new DeliveryAddress();
 		deliveryAddress.setAddress(orderRequest.getDeliveryAddress().getAddress());
 		deliveryAddress.setCity(orderRequest.getDeliveryAddress().getCity());
-		deliveryAddress.setId(IdGeneration.generateRandomString());
+		deliveryAddress.setId(IdGeneration.newId());
 		deliveryAddress.setName(orderRequest.getDeliveryAddress().getName());
 		deliveryAddress.setPhone(orderRequest.getDeliveryAddress().getPhone());
 		deliveryAddress.setPincode(orderRequest.getDeliveryAddress().getPincode());
 		
-		deliveryAddress = deliveryAddressRepo.save(deliveryAddress);
-		
+		// Saved together with the order via cascade
 		order.setDeliveryAddress(deliveryAddress);
 
 		return order;
@@ -215,20 +321,75 @@ public class OrderServiceimpl implements IOrderService {
 		
 		Pageable pageable = PageRequest.of(page, limit,Sort.by("createdAt").descending());
 		
-		String requestedStatus = null;
+		String requestedStatus = OrderStatusConstants.normalize(status);
 		
-		if(status!=null)
+		Page<Orders> pageData= orderRepo.findByStatus(requestedStatus, pageable);
+		
+		return new PageResponse<>(mapper.toUserOrderDtos(pageData.getContent()), pageData.getNumber(), pageData.getSize(),pageData.getTotalElements(), pageData.getTotalPages(),pageData.isLast());
+	}
+	
+	@Override
+	public CursorPageResponse<OrdersDto> getOrdersByCursor(String userId, String cursor, Integer limit, boolean withTotal) {
+		
+		Pageable pageable = keysetPage(limit);
+		
+		List<Orders> orders;
+		if(cursor == null || cursor.isBlank())
 		{
-			if(status.equalsIgnoreCase("pending")) requestedStatus = OrderStatusConstants.PENDING;
-			else if(status.equalsIgnoreCase("cancelled")) requestedStatus = OrderStatusConstants.CANCELLED;
-			else if(status.equalsIgnoreCase("delivered")) requestedStatus = OrderStatusConstants.DELIVERED;
-			else if(status.equalsIgnoreCase("failed")) requestedStatus = OrderStatusConstants.FAILED;
-			else if(status.equalsIgnoreCase("paid")) requestedStatus = OrderStatusConstants.PAID;
+			orders = orderRepo.findFirstPageByUser(userId, pageable);
+		}else {
+			OrderCursor after = OrderCursor.decode(cursor);
+			orders = orderRepo.findPageByUserAfter(userId, after.getCreatedAt(), after.getOrderId(), pageable);
 		}
 		
-		Page<OrderUserDto> pageData= orderRepo.findByStatus(requestedStatus, pageable).map(o->mapper.toUserOrderDto(o));
+		int pageSize = pageable.getPageSize() - 1;
+		boolean hasNext = orders.size() > pageSize;
+		List<Orders> page = hasNext ? orders.subList(0, pageSize) : orders;
 		
-		return new PageResponse<>(pageData.getContent(), pageData.getNumber(), pageData.getSize(),pageData.getTotalElements(), pageData.getTotalPages(),pageData.isLast());
+		return new CursorPageResponse<>(
+				page.stream().map(o->mapper.toDto(o)).toList(),
+				page.size(),
+				hasNext ? nextCursor(page) : null,
+				hasNext,
+				withTotal ? orderRepo.countByUser(userId) : null);
+	}
+	
+	@Override
+	public CursorPageResponse<OrderUserDto> getAllOrdersByCursor(String status, String cursor, Integer limit, boolean withTotal) {
+		
+		Pageable pageable = keysetPage(limit);
+		String requestedStatus = OrderStatusConstants.normalize(status);
+		
+		List<Orders> orders;
+		if(cursor == null || cursor.isBlank())
+		{
+			orders = orderRepo.findFirstPageByStatus(requestedStatus, pageable);
+		}else {
+			OrderCursor after = OrderCursor.decode(cursor);
+			orders = orderRepo.findPageByStatusAfter(requestedStatus, after.getCreatedAt(), after.getOrderId(), pageable);
+		}
+		
+		int pageSize = pageable.getPageSize() - 1;
+		boolean hasNext = orders.size() > pageSize;
+		List<Orders> page = hasNext ? orders.subList(0, pageSize) : orders;
+		
+		return new CursorPageResponse<>(
+				mapper.toUserOrderDtos(page),
+				page.size(),
+				hasNext ? nextCursor(page) : null,
+				hasNext,
+				withTotal ? orderRepo.countOrderByStatus(requestedStatus) : null);
+	}
+	
+	// One row more than asked for tells us whether there is a next page without a COUNT
+	private Pageable keysetPage(Integer limit) {
+		int size = limit == null ? 10 : Math.max(1, Math.min(limit, MAX_CURSOR_PAGE_SIZE));
+		return PageRequest.of(0, size + 1);
+	}
+	
+	private String nextCursor(List<Orders> page) {
+		Orders last = page.get(page.size() - 1);
+		return new OrderCursor(last.getCreatedAt(), last.getOrderId()).encode();
 	}
 	
 	@Override
@@ -242,19 +403,10 @@ public class OrderServiceimpl implements IOrderService {
 		return mapper.toDto(order);
 	}
 	
-	@Cacheable(value = "orderStats")
+	// O(1): read from the counters instead of six COUNT(*) queries
 	@Override
 	public OrdersCountsResponse getOrderStats() {
-		
-		OrdersCountsResponse response = new OrdersCountsResponse();
-		response.setCancelled(orderRepo.countOrderByStatus(OrderStatusConstants.CANCELLED));
-		response.setTotalOrders(orderRepo.countOrderByStatus(null));
-		response.setDelivered(orderRepo.countOrderByStatus(OrderStatusConstants.DELIVERED));
-		response.setFailed(orderRepo.countOrderByStatus(OrderStatusConstants.FAILED));
-		response.setPending(orderRepo.countOrderByStatus(OrderStatusConstants.PENDING));
-		response.setPreparing(orderRepo.countOrderByStatus(OrderStatusConstants.PREPARING));
-		
-		return response;
+		return orderStatsCounter.snapshot();
 	}
 	
 
@@ -36,10 +36,7 @@ public class UserServiceImpl implements IUserService {
 		return null;
 	}
 	
-	@Cacheable(
-		    value = "user-search",
-		    key = " #page + '_' + #limit"
-		)
+	@Cacheable(value = "user-search", keyGenerator = "paramsKeyGenerator", sync = true)
 	@Override
 	public PageResponse<UserDto> getUsers(String searchText, Integer page, Integer limit) {
 		
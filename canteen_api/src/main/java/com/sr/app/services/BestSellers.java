@@ -0,0 +1,336 @@
+package com.sr.app.services;
+
+import java.time.DayOfWeek;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.temporal.IsoFields;
+import java.time.temporal.TemporalAdjusters;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ZSetOperations.TypedTuple;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.sr.app.constants.OrderStatusConstants;
+import com.sr.app.respos.DailyItemRollupRepo;
+import com.sr.app.respos.OrderItemRepo;
+import com.sr.app.utils.TransactionHooks;
+
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Best-selling items for today, this week and all time, counted in quantity
+ * ordered as orders get paid.
+ *
+ * Each window is a Space-Saving summary kept in a Redis sorted set of at most
+ * capacity items: a new item past capacity takes the place of the lowest one
+ * and inherits its count, so counts can only be overestimated and the true top
+ * items stay in the set. With fewer menu items than capacity the counts are
+ * exact. One Lua script applies a batch, so every node feeds the same summary.
+ *
+ * Nodes collect paid quantities in memory and flush them every few seconds.
+ * Quantities count toward the day (and week) the order was placed, like the
+ * daily rollups. Reading a top list is one ZREVRANGE; items are described from
+ * MenuCatalog.
+ *
+ * History is seeded once. The first node to start records a cutoff in Redis:
+ * orders placed from then on are counted live, older ones by the seed, so none
+ * is counted twice. The seed counts the same event as the live path (paid,
+ * preparing or delivered, not cancelled) and waits until SalesRollup has
+ * finished its backfill, because delivered days come from the rollups. An
+ * order placed before the cutoff and paid only after the seed ran is missed.
+ */
+@Service
+public class BestSellers {
+
+	private static final Logger logger = LoggerFactory.getLogger(BestSellers.class);
+
+	public static final String DAY = "day";
+
+	public static final String WEEK = "week";
+
+	public static final String ALL = "all";
+
+	public static final List<String> WINDOWS = List.of(DAY, WEEK, ALL);
+
+	private static final String KEY_PREFIX = "sales:top:";
+
+	// Orders placed at or after this instant (epoch ms) are counted live
+	private static final String SINCE_KEY = KEY_PREFIX + "since";
+
+	private static final String SEEDED_KEY_PREFIX = KEY_PREFIX + "seeded:";
+
+	private static final String SEED_LOCK_KEY = KEY_PREFIX + "seed-lock";
+
+	private static final Duration SEED_LOCK_TTL = Duration.ofMinutes(10);
+
+	private static final Set<String> IN_PROGRESS = Set.of(OrderStatusConstants.PAID, OrderStatusConstants.PREPARING);
+
+	private static final Duration DAY_TTL = Duration.ofDays(2);
+
+	private static final Duration WEEK_TTL = Duration.ofDays(14);
+
+	// KEYS[1] summary, ARGV[1] capacity, ARGV[2] ttl ms (0 = none), then item/quantity pairs
+	private static final DefaultRedisScript<Long> MERGE = new DefaultRedisScript<>("""
+			local capacity = tonumber(ARGV[1])
+			for i = 3, #ARGV, 2 do
+			  local item, quantity = ARGV[i], tonumber(ARGV[i + 1])
+			  if redis.call('ZSCORE', KEYS[1], item) or redis.call('ZCARD', KEYS[1]) < capacity then
+			    redis.call('ZINCRBY', KEYS[1], quantity, item)
+			  else
+			    local lowest = redis.call('ZPOPMIN', KEYS[1])
+			    redis.call('ZADD', KEYS[1], tonumber(lowest[2]) + quantity, item)
+			  end
+			end
+			if tonumber(ARGV[2]) > 0 then
+			  redis.call('PEXPIRE', KEYS[1], ARGV[2])
+			end
+			return redis.call('ZCARD', KEYS[1])
+			""", Long.class);
+
+	@Autowired
+	private StringRedisTemplate redisTemplate;
+
+	@Autowired
+	private OrderItemRepo orderItemRepo;
+
+	@Autowired
+	private DailyItemRollupRepo itemRollupRepo;
+
+	@Autowired
+	private SalesRollup salesRollup;
+
+	@Autowired
+	private TransactionTemplate transactionTemplate;
+
+	@Value("${dashboard.top-items.capacity:200}")
+	private int capacity;
+
+	// guarded by this: day placed -> item -> quantity not yet flushed
+	private Map<LocalDate, Map<String, Long>> pending = new HashMap<>();
+
+	private volatile LocalDateTime since;
+
+	private volatile boolean seeded;
+
+	/**
+	 * Counts the items of the orders one OrderRepo.transitionStatus call moved to
+	 * PAID, once the transition commits.
+	 */
+	public void recordTransition(String transitionId, String toStatus) {
+		if (!OrderStatusConstants.PAID.equals(toStatus)) {
+			return;
+		}
+		LocalDateTime countFrom = since();
+		if (countFrom == null) {
+			// Without the cutoff this order could end up in the seed as well
+			logger.warn("Best seller cutoff unknown, not counting transition {}", transitionId);
+			return;
+		}
+		Map<LocalDate, Map<String, Long>> quantities = new HashMap<>();
+		for (Object[] row : orderItemRepo.sumQuantityByTransition(transitionId, countFrom)) {
+			LocalDate day = ((LocalDateTime) row[1]).toLocalDate();
+			quantities.computeIfAbsent(day, d -> new HashMap<>()).merge((String) row[0], ((Number) row[2]).longValue(), Long::sum);
+		}
+		TransactionHooks.afterCommit(() -> quantities.forEach(this::add));
+	}
+
+	/**
+	 * Up to limit items of the window, best first, with their (over)estimated quantity.
+	 */
+	public Map<String, Long> top(String window, int limit) {
+		Map<String, Long> top = new LinkedHashMap<>();
+		try {
+			Set<TypedTuple<String>> rows = redisTemplate.opsForZSet().reverseRangeWithScores(key(window, LocalDate.now()), 0, limit - 1);
+			if (rows != null) {
+				rows.forEach(row -> top.put(row.getValue(), row.getScore().longValue()));
+			}
+		} catch (RuntimeException e) {
+			logger.warn("Could not read the best sellers: {}", e.getMessage());
+		}
+		return top;
+	}
+
+	public int capacity() {
+		return capacity;
+	}
+
+	@Scheduled(fixedDelayString = "${dashboard.top-items.flush-ms:5000}")
+	public void flush() {
+		Map<LocalDate, Map<String, Long>> batch;
+		synchronized (this) {
+			if (pending.isEmpty()) {
+				return;
+			}
+			batch = pending;
+			pending = new HashMap<>();
+		}
+		try {
+			batch.forEach(this::merge);
+		} catch (RuntimeException e) {
+			// Windows merged before the failure count this batch twice, rare enough to accept
+			logger.warn("Could not flush best seller counts, retrying on the next flush: {}", e.getMessage());
+			batch.forEach(this::add);
+		}
+	}
+
+	@PreDestroy
+	void shutdown() {
+		flush();
+	}
+
+	@EventListener(ApplicationReadyEvent.class)
+	public void onStartup() {
+		seedIfNeeded();
+	}
+
+	@Scheduled(initialDelayString = "${dashboard.top-items.seed-retry-ms:60000}", fixedDelayString = "${dashboard.top-items.seed-retry-ms:60000}")
+	public void seedIfNeeded() {
+		if (seeded) {
+			return;
+		}
+		LocalDateTime countFrom = since();
+		if (countFrom == null) {
+			return;
+		}
+		try {
+			if (allSeeded()) {
+				seeded = true;
+				return;
+			}
+			// Retried until the rollups are complete, seeding from part of them would stick for good
+			if (!salesRollup.isBackfilled()
+					|| !Boolean.TRUE.equals(redisTemplate.opsForValue().setIfAbsent(SEED_LOCK_KEY, "1", SEED_LOCK_TTL))) {
+				return;
+			}
+			try {
+				LocalDate today = LocalDate.now();
+				for (String window : WINDOWS) {
+					// One flag per window, so a seed cut short never merges a window twice
+					if (!Boolean.TRUE.equals(redisTemplate.hasKey(SEEDED_KEY_PREFIX + window))) {
+						run(window, today, seedQuantities(window, today, countFrom));
+						redisTemplate.opsForValue().set(SEEDED_KEY_PREFIX + window, "1");
+					}
+				}
+				seeded = true;
+				logger.info("Seeded best sellers with orders placed before {}", countFrom);
+			} finally {
+				redisTemplate.delete(SEED_LOCK_KEY);
+			}
+		} catch (RuntimeException e) {
+			logger.warn("Could not seed the best seller summaries, retrying later: {}", e.getMessage());
+		}
+	}
+
+	private boolean allSeeded() {
+		for (String window : WINDOWS) {
+			if (!Boolean.TRUE.equals(redisTemplate.hasKey(SEEDED_KEY_PREFIX + window))) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Quantities of the window's paid orders placed before countFrom: delivered
+	 * days before the cutoff's day from the rollups, the rest from the orders.
+	 * Both reads share one transaction so an order delivered meanwhile is
+	 * counted exactly once.
+	 */
+	private List<String> seedQuantities(String window, LocalDate today, LocalDateTime countFrom) {
+		LocalDate from = switch (window) {
+			case DAY -> today;
+			case WEEK -> today.with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY));
+			default -> LocalDate.EPOCH;
+		};
+		LocalDate rolledUpBefore = countFrom.toLocalDate();
+
+		Map<String, Long> quantities = new HashMap<>();
+		transactionTemplate.executeWithoutResult(status -> {
+			itemRollupRepo.sumQuantityByItemBetween(OrderStatusConstants.DELIVERED, from, rolledUpBefore)
+					.forEach(row -> quantities.merge((String) row[0], ((Number) row[1]).longValue(), Long::sum));
+			orderItemRepo.sumPaidQuantityNotRolledUp(from.atStartOfDay(), countFrom, IN_PROGRESS,
+					OrderStatusConstants.DELIVERED, rolledUpBefore.atStartOfDay())
+					.forEach(row -> quantities.merge((String) row[0], ((Number) row[1]).longValue(), Long::sum));
+		});
+
+		List<String> args = new ArrayList<>();
+		quantities.forEach((item, quantity) -> {
+			args.add(item);
+			args.add(Long.toString(quantity));
+		});
+		return args;
+	}
+
+	// The first node to ask fixes the cutoff for everyone
+	private LocalDateTime since() {
+		LocalDateTime current = since;
+		if (current != null) {
+			return current;
+		}
+		try {
+			redisTemplate.opsForValue().setIfAbsent(SINCE_KEY, Long.toString(System.currentTimeMillis()));
+			String stored = redisTemplate.opsForValue().get(SINCE_KEY);
+			current = LocalDateTime.ofInstant(Instant.ofEpochMilli(Long.parseLong(stored)), ZoneId.systemDefault());
+			since = current;
+			return current;
+		} catch (RuntimeException e) {
+			logger.warn("Could not read the best seller cutoff: {}", e.getMessage());
+			return null;
+		}
+	}
+
+	private synchronized void add(LocalDate day, Map<String, Long> quantities) {
+		Map<String, Long> items = pending.computeIfAbsent(day, d -> new HashMap<>());
+		quantities.forEach((item, quantity) -> items.merge(item, quantity, Long::sum));
+	}
+
+	private void merge(LocalDate day, Map<String, Long> quantities) {
+		List<String> args = new ArrayList<>();
+		quantities.forEach((item, quantity) -> {
+			args.add(item);
+			args.add(Long.toString(quantity));
+		});
+		for (String window : WINDOWS) {
+			run(window, day, args);
+		}
+	}
+
+	private void run(String window, LocalDate day, List<String> items) {
+		if (items.isEmpty()) {
+			return;
+		}
+		Duration ttl = DAY.equals(window) ? DAY_TTL : WEEK.equals(window) ? WEEK_TTL : Duration.ZERO;
+		List<String> args = new ArrayList<>(items.size() + 2);
+		args.add(Integer.toString(capacity));
+		args.add(Long.toString(ttl.toMillis()));
+		args.addAll(items);
+		redisTemplate.execute(MERGE, List.of(key(window, day)), args.toArray());
+	}
+
+	private static String key(String window, LocalDate day) {
+		return switch (window) {
+			case DAY -> KEY_PREFIX + DAY + ":" + day;
+			case WEEK -> KEY_PREFIX + WEEK + ":" + day.get(IsoFields.WEEK_BASED_YEAR) + "-W" + day.get(IsoFields.WEEK_OF_WEEK_BASED_YEAR);
+			default -> KEY_PREFIX + ALL;
+		};
+	}
+
+}
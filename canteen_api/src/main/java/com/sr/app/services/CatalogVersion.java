@@ -0,0 +1,99 @@
+package com.sr.app.services;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import jakarta.annotation.PostConstruct;
+
+/**
+ * One counter for the public catalog (menu items and categories), bumped by
+ * every item or category write and used in the ETags of the public GET
+ * endpoints. The counter lives in Redis; each node keeps a local copy, moved
+ * forward by pub/sub and a short periodic resync, so checking an ETag costs no
+ * round trip.
+ *
+ * If a bump can't reach Redis the version is unknown until a later bump
+ * succeeds, and no 304 is answered in the meantime.
+ */
+@Component
+public class CatalogVersion implements MessageListener {
+
+	private static final Logger logger = LoggerFactory.getLogger(CatalogVersion.class);
+
+	private static final String KEY = "catalog:version";
+
+	private static final String CHANNEL = "catalog:version";
+
+	public static final long UNKNOWN = -1;
+
+	@Autowired
+	private StringRedisTemplate redisTemplate;
+
+	@Autowired
+	private RedisMessageListenerContainer listenerContainer;
+
+	private volatile long version = UNKNOWN;
+
+	// A write whose bump never reached Redis, retried by resync
+	private volatile boolean bumpPending;
+
+	@PostConstruct
+	void listen() {
+		listenerContainer.addMessageListener(this, new ChannelTopic(CHANNEL));
+	}
+
+	public long current() {
+		return bumpPending ? UNKNOWN : version;
+	}
+
+	/**
+	 * Call after a catalog write has committed and the data it serves from
+	 * (catalog snapshot, cache) has been updated.
+	 */
+	public void bump() {
+		try {
+			long next = redisTemplate.opsForValue().increment(KEY);
+			bumpPending = false;
+			advance(next);
+			redisTemplate.convertAndSend(CHANNEL, Long.toString(next));
+		} catch (RuntimeException e) {
+			bumpPending = true;
+			logger.warn("Could not bump the catalog version, conditional GETs are off until it is retried: {}", e.getMessage());
+		}
+	}
+
+	@Override
+	public void onMessage(Message message, byte[] pattern) {
+		advance(Long.parseLong(new String(message.getBody())));
+	}
+
+	@Scheduled(fixedDelayString = "${catalog.version.sync-ms:5000}")
+	public void resync() {
+		if (bumpPending) {
+			bump();
+			return;
+		}
+		try {
+			String stored = redisTemplate.opsForValue().get(KEY);
+			advance(stored == null ? 0 : Long.parseLong(stored));
+		} catch (RuntimeException e) {
+			logger.warn("Could not resync the catalog version: {}", e.getMessage());
+		}
+	}
+
+	// Only moves forward, late or repeated messages are harmless
+	private synchronized void advance(long next) {
+		if (next > version) {
+			version = next;
+		}
+	}
+
+}
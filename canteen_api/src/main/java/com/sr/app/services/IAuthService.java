@@ -6,8 +6,10 @@ import com.sr.app.response.TokenResponse;
 
 public interface IAuthService {
 	
-	public TokenResponse userSignIn(UserSigninRequest request);
+	public TokenResponse userSignIn(UserSigninRequest request, String clientIp);
 	
-	public TokenResponse userSignup(UserSignupRequest request);
+	public TokenResponse userSignup(UserSignupRequest request, String clientIp);
+	
+	public void logout(String token);
 
 }
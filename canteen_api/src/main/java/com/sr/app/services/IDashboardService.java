@@ -12,6 +12,6 @@ public interface IDashboardService {
 	public AdminDashboardResponse dashboardResponse();
 	public List<IncomeDto> incomeByMonths(int months);
 	
-	public List<TopOrdredItemResponse> topOrderedItem();
+	public List<TopOrdredItemResponse> topOrderedItem(String window, int limit);
 
 }
@@ -6,6 +6,8 @@ import org.springframework.web.multipart.MultipartFile;
 
 import com.sr.app.dto.MenuItemCartInfoDto;
 import com.sr.app.dto.MenuItemDto;
+import com.sr.app.dto.MenuSuggestionDto;
+import com.sr.app.response.MenuChangesResponse;
 import com.sr.app.response.PageResponse;
 
 public interface IItemService {
@@ -25,7 +27,16 @@ public interface IItemService {
 	
 	public MenuItemCartInfoDto getById(String itemId,String userId);
 	
+	public List<MenuItemDto> getByIds(List<String> itemIds);
+	
 	public List<MenuItemDto> getItemByCategory(String categoryId);
+	
+	// Changes only when one of the category's items does
+	public long getCategoryVersion(String categoryId);
+	
+	public List<MenuSuggestionDto> suggest(String q, Integer limit);
+	
+	public MenuChangesResponse changesSince(Long since);
 
 	
 }
@@ -0,0 +1,11 @@
+package com.sr.app.services;
+
+import java.util.List;
+
+import com.sr.app.dto.MenuCategoryTreeDto;
+
+public interface IMenuService {
+
+	public List<MenuCategoryTreeDto> getMenuTree();
+
+}
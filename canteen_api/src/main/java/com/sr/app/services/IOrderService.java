@@ -1,8 +1,13 @@
 package com.sr.app.services;
 
+import java.util.List;
+
 import com.sr.app.dto.OrderUserDto;
 import com.sr.app.dto.OrdersDto;
 import com.sr.app.request.OrderRequest;
+import com.sr.app.response.BulkStatusUpdateResponse;
+import com.sr.app.response.CursorPageResponse;
+import com.sr.app.response.OrderPaymentStatusResponse;
 import com.sr.app.response.OrderResponse;
 import com.sr.app.response.OrdersCountsResponse;
 import com.sr.app.response.PageResponse;
@@ -12,12 +17,20 @@ public interface IOrderService {
 	
 	public OrderResponse create(OrderRequest orderRequest,String userId);
 	
+	public OrderPaymentStatusResponse getPaymentStatus(String orderId,String userId);
+	
 	public void updateStatus(String orderId,String status);
 	
+	public BulkStatusUpdateResponse updateStatus(List<String> orderIds,String status);
+	
 	public PageResponse<OrdersDto> getOrders(String userId,Integer page,Integer limit);
 	
 	public PageResponse<OrderUserDto> getOrders(Integer page,Integer limit,String status);
 	
+	public CursorPageResponse<OrdersDto> getOrdersByCursor(String userId,String cursor,Integer limit,boolean withTotal);
+	
+	public CursorPageResponse<OrderUserDto> getAllOrdersByCursor(String status,String cursor,Integer limit,boolean withTotal);
+	
 	public OrdersDto getOrder(String orderId);
 	
 	public OrdersCountsResponse getOrderStats();
@@ -0,0 +1,238 @@
+package com.sr.app.services;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.HexFormat;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sr.app.exception.AppException;
+
+/**
+ * Runs a request at most once per Idempotency-Key. The first request stores its
+ * response in Redis (with a TTL), later duplicates get that response back, and
+ * duplicates arriving while the first is still running wait for it.
+ *
+ * Entries are "P|fingerprint" while running and "D|fingerprint|json" once done.
+ * A failed first attempt removes its entry so the client can retry. If the
+ * attempt succeeded but its response can't be stored, the response is still
+ * returned and the "P|" entry is left to expire.
+ */
+@Service
+public class IdempotencyStore {
+
+	private static final Logger logger = LoggerFactory.getLogger(IdempotencyStore.class);
+
+	private static final String KEY_PREFIX = "idem:";
+
+	private static final int MAX_KEY_LENGTH = 100;
+
+	private static final long POLL_MS = 50;
+
+	@Autowired
+	private StringRedisTemplate redisTemplate;
+
+	@Autowired
+	private ObjectMapper objectMapper;
+
+	@Value("${idempotency.ttl-ms:86400000}")
+	private long ttlMs;
+
+	// Upper bound for one request, after that the in-progress marker expires
+	@Value("${idempotency.lease-ms:30000}")
+	private long leaseMs;
+
+	@Value("${idempotency.wait-ms:10000}")
+	private long waitMs;
+
+	// Requests running on this node, so same-node duplicates don't have to poll Redis
+	private final ConcurrentMap<String, CompletableFuture<String>> inFlight = new ConcurrentHashMap<>();
+
+	/**
+	 * @param scope   endpoint and user the key belongs to, keys never collide across them
+	 * @param key     client supplied Idempotency-Key, null runs the action unguarded
+	 * @param request request body, a reused key with a different body is rejected
+	 */
+	public <T> T execute(String scope, String key, Object request, Class<T> responseType, Supplier<T> action) {
+		if (key == null || key.isBlank()) {
+			return action.get();
+		}
+		if (key.length() > MAX_KEY_LENGTH) {
+			throw new AppException("Idempotency-Key is too long", HttpStatus.BAD_REQUEST);
+		}
+
+		String redisKey = KEY_PREFIX + scope + ":" + key;
+		String fingerprint = fingerprint(request);
+		long deadline = System.currentTimeMillis() + waitMs;
+
+		while (true) {
+			Boolean acquired;
+			try {
+				acquired = redisTemplate.opsForValue().setIfAbsent(redisKey, "P|" + fingerprint, Duration.ofMillis(leaseMs));
+			} catch (DataAccessException e) {
+				// Without the store we can't dedupe, but we must not block orders either
+				logger.warn("Idempotency store unavailable, running {} unguarded: {}", scope, e.getMessage());
+				return action.get();
+			}
+
+			if (Boolean.TRUE.equals(acquired)) {
+				return runFirst(redisKey, fingerprint, responseType, action);
+			}
+
+			String stored = redisTemplate.opsForValue().get(redisKey);
+			if (stored == null) {
+				// First attempt failed or expired in between, take it over
+				continue;
+			}
+			checkFingerprint(stored, fingerprint);
+			if (stored.startsWith("D|")) {
+				return read(storedResponse(stored), responseType);
+			}
+
+			String json = awaitInFlight(redisKey, deadline);
+			if (json != null) {
+				return read(json, responseType);
+			}
+			if (System.currentTimeMillis() >= deadline) {
+				throw new AppException("A request with this Idempotency-Key is still in progress", HttpStatus.CONFLICT);
+			}
+		}
+	}
+
+	private <T> T runFirst(String redisKey, String fingerprint, Class<T> responseType, Supplier<T> action) {
+		CompletableFuture<String> future = new CompletableFuture<>();
+		inFlight.put(redisKey, future);
+		try {
+			T response;
+			try {
+				response = action.get();
+			} catch (RuntimeException e) {
+				// Nothing happened, the client may retry with the same key
+				release(redisKey);
+				future.completeExceptionally(e);
+				throw e;
+			}
+
+			// The action's effects are committed from here on: failing to store the response
+			// must not reach the client, or its retry would run them a second time
+			String json = null;
+			try {
+				json = write(response);
+				redisTemplate.opsForValue().set(redisKey, "D|" + fingerprint + "|" + json, Duration.ofMillis(ttlMs));
+			} catch (RuntimeException e) {
+				logger.warn("Could not store the response for {}, duplicates get 409 until the in-progress marker expires: {}",
+						redisKey, e.getMessage());
+			}
+			// null sends same-node waiters back to Redis, where they find the marker
+			future.complete(json);
+			return response;
+		} finally {
+			inFlight.remove(redisKey, future);
+		}
+	}
+
+	private void release(String redisKey) {
+		try {
+			redisTemplate.delete(redisKey);
+		} catch (RuntimeException e) {
+			logger.warn("Could not release {}, it frees up when the in-progress marker expires: {}", redisKey, e.getMessage());
+		}
+	}
+
+	/**
+	 * Waits for the running request: on this node through its future, otherwise by
+	 * polling Redis. Returns the stored json, or null if the caller should look again.
+	 */
+	private String awaitInFlight(String redisKey, long deadline) {
+		CompletableFuture<String> local = inFlight.get(redisKey);
+		if (local != null) {
+			try {
+				return local.get(Math.max(0, deadline - System.currentTimeMillis()), TimeUnit.MILLISECONDS);
+			} catch (ExecutionException e) {
+				// The first request failed and released the key
+				return null;
+			} catch (TimeoutException e) {
+				return null;
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				throw new AppException("Interrupted while waiting for the original request", HttpStatus.SERVICE_UNAVAILABLE);
+			}
+		}
+
+		while (System.currentTimeMillis() < deadline) {
+			sleep();
+			String stored = redisTemplate.opsForValue().get(redisKey);
+			if (stored == null) {
+				return null;
+			}
+			if (stored.startsWith("D|")) {
+				return storedResponse(stored);
+			}
+		}
+		return null;
+	}
+
+	private void checkFingerprint(String stored, String fingerprint) {
+		if (!stored.startsWith(fingerprint, 2)) {
+			throw new AppException("Idempotency-Key was already used for a different request", HttpStatus.UNPROCESSABLE_ENTITY);
+		}
+	}
+
+	private String storedResponse(String stored) {
+		return stored.substring(stored.indexOf('|', 2) + 1);
+	}
+
+	private String fingerprint(Object request) {
+		try {
+			byte[] body = objectMapper.writeValueAsBytes(request);
+			return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(body));
+		} catch (JsonProcessingException | NoSuchAlgorithmException e) {
+			throw new IllegalStateException("Could not fingerprint request", e);
+		}
+	}
+
+	private String write(Object response) {
+		try {
+			return objectMapper.writeValueAsString(response);
+		} catch (JsonProcessingException e) {
+			throw new IllegalStateException("Could not store idempotent response", e);
+		}
+	}
+
+	private <T> T read(String json, Class<T> responseType) {
+		try {
+			return objectMapper.readValue(json.getBytes(StandardCharsets.UTF_8), responseType);
+		} catch (IOException e) {
+			throw new IllegalStateException("Could not read idempotent response", e);
+		}
+	}
+
+	private void sleep() {
+		try {
+			Thread.sleep(POLL_MS);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new AppException("Interrupted while waiting for the original request", HttpStatus.SERVICE_UNAVAILABLE);
+		}
+	}
+
+}
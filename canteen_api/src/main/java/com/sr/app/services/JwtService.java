@@ -5,10 +5,13 @@ import java.util.Map;
 
 import javax.crypto.SecretKey;
 
-import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Service;
 
+import com.sr.app.utils.IdGeneration;
+
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.SignatureAlgorithm;
 import io.jsonwebtoken.security.Keys;
@@ -24,6 +27,11 @@ public class JwtService {
     // Token validity (e.g., 2 days)
     private static final long EXPIRATION_TIME_MS = 1000 * 60 * 60 * 24 * 2;
 
+    // Immutable and thread-safe, built once instead of per call
+    private static final JwtParser PARSER = Jwts.parserBuilder()
+            .setSigningKey(SECRET_KEY)
+            .build();
+
     /**
      * Generate token with email (subject) and optional custom claims
      */
@@ -34,6 +42,8 @@ public class JwtService {
         return Jwts.builder()
                 .setClaims(extraClaims)
                 .setSubject(email)
+                // jti, what logout revokes
+                .setId(IdGeneration.newId())
                 .setIssuedAt(now)
                 .setExpiration(expiry)
                 .signWith(SECRET_KEY, SignatureAlgorithm.HS256)
@@ -58,29 +68,18 @@ public class JwtService {
      * Extract all claims from JWT
      */
     public Claims extractAllClaims(String token) {
-        return Jwts.parserBuilder()
-                .setSigningKey(SECRET_KEY)
-                .build()
-                .parseClaimsJws(token)
-                .getBody();
-    }
-
-    /**
-     * Validate token against user details
-     */
-    public boolean validateToken(String token, UserDetails userDetails) {
-        String email = extractEmail(token);
-        
-        UserDetailsImpl userDetailsImpl = (UserDetailsImpl) userDetails;
-        
-        return (email.equals(userDetailsImpl.getUser().getEmail()) && !isTokenExpired(token));
+        return PARSER.parseClaimsJws(token).getBody();
     }
 
     /**
-     * Check if token is expired
+     * Verifies signature and expiry in one parse; null when the token is
+     * invalid or expired
      */
-    private boolean isTokenExpired(String token) {
-        Date expiration = extractAllClaims(token).getExpiration();
-        return expiration.before(new Date());
+    public Claims parseValidClaims(String token) {
+        try {
+            return extractAllClaims(token);
+        } catch (JwtException | IllegalArgumentException e) {
+            return null;
+        }
     }
 }
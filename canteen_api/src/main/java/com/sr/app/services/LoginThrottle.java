@@ -0,0 +1,172 @@
+package com.sr.app.services;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+
+import com.sr.app.exception.AppException;
+
+/**
+ * Sign-in attempts counted per email and per client IP in Redis, over fixed
+ * windows. An attempt is counted before any BCrypt work and refused past either
+ * limit; counting and comparing are one script, so concurrent attempts can't
+ * all get in under the limit. A successful sign-in clears the email's count
+ * and gives its attempt back to the IP, as does an attempt that never reached
+ * a password check (unknown email, Google-only account). An attempt the hasher
+ * turned away as overloaded is given back to both. So the limits only grow
+ * with wrong passwords for real accounts, and a whole class behind one campus
+ * NAT retrying through a rush doesn't trip them.
+ *
+ * If Redis is unreachable the check lets requests through.
+ */
+@Component
+public class LoginThrottle {
+
+	private static final Logger logger = LoggerFactory.getLogger(LoginThrottle.class);
+
+	private static final String EMAIL_KEY = "auth:failures:email:";
+
+	private static final String IP_KEY = "auth:failures:ip:";
+
+	// ARGV max/window ms pairs per key; counts one attempt on every key, or on none
+	// when one is past its max, returning that key's 1-based index (0 = allowed).
+	// A window starts at its key's first attempt.
+	private static final DefaultRedisScript<Long> ACQUIRE = new DefaultRedisScript<>("""
+			for i = 1, #KEYS do
+			  local count = redis.call('INCR', KEYS[i])
+			  if count == 1 then
+			    redis.call('PEXPIRE', KEYS[i], ARGV[2 * i])
+			  end
+			  if count > tonumber(ARGV[2 * i - 1]) then
+			    for j = 1, i do
+			      redis.call('DECR', KEYS[j])
+			    end
+			    return i
+			  end
+			end
+			return 0
+			""", Long.class);
+
+	// Gives back one attempt, never creating the key or going below zero
+	private static final DefaultRedisScript<Long> RELEASE = new DefaultRedisScript<>("""
+			local count = tonumber(redis.call('GET', KEYS[1]) or '0')
+			if count > 0 then
+			  return redis.call('DECR', KEYS[1])
+			end
+			return 0
+			""", Long.class);
+
+	@Autowired
+	private StringRedisTemplate redisTemplate;
+
+	@Value("${auth.throttle.email-max-failures:5}")
+	private long emailMaxFailures;
+
+	@Value("${auth.throttle.email-window-ms:900000}")
+	private long emailWindowMs;
+
+	@Value("${auth.throttle.ip-max-failures:200}")
+	private long ipMaxFailures;
+
+	@Value("${auth.throttle.ip-window-ms:300000}")
+	private long ipWindowMs;
+
+	/**
+	 * Counts a sign-in attempt against the email and the IP, either of which may
+	 * be null. Throws 429 when one of them is out of attempts, counting nothing.
+	 */
+	public void acquire(String email, String clientIp) {
+		List<String> keys = new ArrayList<>(2);
+		List<Object> args = new ArrayList<>(4);
+		if (email != null) {
+			keys.add(EMAIL_KEY + normalize(email));
+			args.add(String.valueOf(emailMaxFailures));
+			args.add(String.valueOf(emailWindowMs));
+		}
+		if (clientIp != null) {
+			keys.add(IP_KEY + clientIp);
+			args.add(String.valueOf(ipMaxFailures));
+			args.add(String.valueOf(ipWindowMs));
+		}
+		if (keys.isEmpty()) {
+			return;
+		}
+
+		Long refused;
+		try {
+			refused = redisTemplate.execute(ACQUIRE, keys, args.toArray());
+		} catch (RuntimeException e) {
+			logger.warn("Sign-in throttle unavailable, allowing the attempt: {}", e.getMessage());
+			return;
+		}
+		if (refused != null && refused > 0) {
+			if (keys.get(refused.intValue() - 1).startsWith(EMAIL_KEY)) {
+				throw new AppException("Too many failed sign-ins for this account, please try again later", HttpStatus.TOO_MANY_REQUESTS);
+			}
+			throw new AppException("Too many failed sign-ins from this network, please try again later", HttpStatus.TOO_MANY_REQUESTS);
+		}
+	}
+
+	// Signup adds no attempts, it is only refused from a network that is out of them
+	public void checkNetwork(String clientIp) {
+		if (clientIp == null) {
+			return;
+		}
+		try {
+			String count = redisTemplate.opsForValue().get(IP_KEY + clientIp);
+			if (count != null && Long.parseLong(count) >= ipMaxFailures) {
+				throw new AppException("Too many failed sign-ins from this network, please try again later", HttpStatus.TOO_MANY_REQUESTS);
+			}
+		} catch (AppException e) {
+			throw e;
+		} catch (RuntimeException e) {
+			logger.warn("Sign-in throttle unavailable, allowing the attempt: {}", e.getMessage());
+		}
+	}
+
+	public void recordSuccess(String email, String clientIp) {
+		try {
+			redisTemplate.delete(EMAIL_KEY + normalize(email));
+		} catch (RuntimeException e) {
+			logger.warn("Could not reset sign-in failures: {}", e.getMessage());
+		}
+		releaseNetwork(clientIp);
+	}
+
+	// The attempt never tested a password, so it doesn't count against the IP
+	public void releaseNetwork(String clientIp) {
+		if (clientIp != null) {
+			giveBack(IP_KEY + clientIp);
+		}
+	}
+
+	// The password was never checked (hasher overloaded), so the attempt doesn't count at all
+	public void release(String email, String clientIp) {
+		if (email != null) {
+			giveBack(EMAIL_KEY + normalize(email));
+		}
+		releaseNetwork(clientIp);
+	}
+
+	private void giveBack(String key) {
+		try {
+			redisTemplate.execute(RELEASE, List.of(key));
+		} catch (RuntimeException e) {
+			logger.warn("Could not release sign-in attempt: {}", e.getMessage());
+		}
+	}
+
+	private static String normalize(String email) {
+		return email.trim().toLowerCase(Locale.ROOT);
+	}
+
+}
@@ -0,0 +1,474 @@
+package com.sr.app.services;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.http.HttpStatus;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import com.sr.app.dto.MenuItemDto;
+import com.sr.app.exception.AppException;
+import com.sr.app.mapper.Mapper;
+import com.sr.app.models.MenuItems;
+import com.sr.app.response.PageResponse;
+import com.sr.app.respos.MenuItemRespo;
+
+import jakarta.annotation.PostConstruct;
+
+/**
+ * The whole menu held in memory as an immutable snapshot, so listing, search and
+ * category pages never touch MySQL. An item write reloads just that item from
+ * the database and builds the next snapshot from it and the items already held;
+ * refresh() reloads everything. Either way the new snapshot is swapped in with
+ * one volatile write. Other nodes are told to do the same over Redis pub/sub,
+ * and a periodic rebuild covers missed messages.
+ *
+ * Each snapshot carries a version per category ({@code category:<id>}), a
+ * SHA-256 digest of its items, so anything built from one category can tell
+ * whether it is still current without being flushed on every menu edit. Being
+ * a digest of the content, it is the same on every node holding the same menu.
+ *
+ * DTOs handed out are shared between requests and must not be modified.
+ */
+@Service
+public class MenuCatalog implements MessageListener {
+
+	private static final Logger logger = LoggerFactory.getLogger(MenuCatalog.class);
+
+	private static final String CHANNEL = "menu:catalog";
+
+	private static final String SEPARATOR = "|";
+
+	// Lets a node ignore its own rebuild notices
+	private final String nodeId = UUID.randomUUID().toString();
+
+	@Autowired
+	private MenuItemRespo itemRespo;
+
+	@Autowired
+	private Mapper mapper;
+
+	@Autowired
+	private StringRedisTemplate redisTemplate;
+
+	@Autowired
+	private RedisMessageListenerContainer listenerContainer;
+
+	private volatile Snapshot snapshot;
+
+	@PostConstruct
+	void listen() {
+		listenerContainer.addMessageListener(this, new ChannelTopic(CHANNEL));
+	}
+
+	public Snapshot current() {
+		Snapshot current = snapshot;
+		return current != null ? current : rebuild();
+	}
+
+	/**
+	 * Rebuilds from the database, then asks the other nodes to rebuild too.
+	 * Call after a menu write has committed.
+	 */
+	public void refresh() {
+		rebuild();
+		broadcast(nodeId);
+	}
+
+	/**
+	 * Reloads one item (added, updated or deleted) into a new snapshot, then asks
+	 * the other nodes to do the same. Only its category's version changes (both
+	 * categories when it moved). Call after the write has committed.
+	 */
+	public void itemChanged(String itemId) {
+		patch(itemId);
+		broadcast(nodeId + SEPARATOR + itemId);
+	}
+
+	// Body is the sender's node id, followed by an item id when only that item changed
+	@Override
+	public void onMessage(Message message, byte[] pattern) {
+		String[] parts = new String(message.getBody()).split("\\" + SEPARATOR, 2);
+		if (nodeId.equals(parts[0])) {
+			return;
+		}
+		if (parts.length == 2) {
+			patch(parts[1]);
+		} else {
+			rebuild();
+		}
+	}
+
+	private void broadcast(String body) {
+		try {
+			redisTemplate.convertAndSend(CHANNEL, body);
+		} catch (RuntimeException e) {
+			logger.warn("Could not broadcast menu change, other nodes catch up on their next scheduled rebuild: {}", e.getMessage());
+		}
+	}
+
+	@EventListener(ApplicationReadyEvent.class)
+	public void warmUp() {
+		rebuild();
+	}
+
+	@Scheduled(fixedDelayString = "${menu.catalog.rebuild-ms:300000}", initialDelayString = "${menu.catalog.rebuild-ms:300000}")
+	public void scheduledRebuild() {
+		try {
+			rebuild();
+		} catch (RuntimeException e) {
+			logger.warn("Scheduled menu rebuild failed, keeping the previous snapshot: {}", e.getMessage());
+		}
+	}
+
+	// Serialized so a slow rebuild can't overwrite a newer one
+	private synchronized Snapshot rebuild() {
+		List<MenuItemDto> items = itemRespo.findAllWithCategory().stream().map(mapper::toDto).toList();
+		Snapshot next = new Snapshot(items);
+		snapshot = next;
+		logger.debug("Menu catalog rebuilt with {} items", items.size());
+		return next;
+	}
+
+	// Same monitor as rebuild, so the item always applies on top of the latest snapshot
+	private synchronized void patch(String itemId) {
+		MenuItemDto item = itemRespo.findAllWithCategoryByItemIdIn(List.of(itemId)).stream()
+				.findFirst()
+				.map(mapper::toDto)
+				.orElse(null);
+		Snapshot current = snapshot;
+		snapshot = current == null ? rebuild() : current.with(itemId, item);
+		logger.debug("Menu catalog reloaded item {}", itemId);
+	}
+
+	public static final class Snapshot {
+
+		private static final int[] NONE = new int[0];
+
+		// Items in name order; an item's position here is its ordinal
+		private final MenuItemDto[] items;
+
+		private final String[] lowerNames;
+
+		private final Map<String, Integer> ordinalById;
+
+		// Ordinals per category, ascending
+		private final Map<String, int[]> ordinalsByCategory;
+
+		// Ordinals of priced items by price, with the prices alongside for binary search
+		private final int[] ordinalsByPrice;
+
+		private final double[] sortedPrices;
+
+		private final MenuSearchIndex searchIndex;
+
+		// SHA-256 of each item's fields, by ordinal
+		private final byte[][] itemDigests;
+
+		private final Map<String, Long> tagVersions;
+
+		private final long contentVersion;
+
+		Snapshot(List<MenuItemDto> source) {
+			this(source, null);
+		}
+
+		// Digests of items also held, unchanged, by previous are reused rather than recomputed
+		private Snapshot(List<MenuItemDto> source, Snapshot previous) {
+			List<MenuItemDto> sorted = new ArrayList<>(source);
+			sorted.sort(Comparator.comparing((MenuItemDto i) -> lower(i.getItemName()))
+					.thenComparing(MenuItemDto::getItemId));
+
+			int n = sorted.size();
+			items = sorted.toArray(new MenuItemDto[0]);
+			lowerNames = new String[n];
+			ordinalById = new HashMap<>(n * 2);
+			Map<String, List<Integer>> byCategory = new HashMap<>();
+			List<Integer> priced = new ArrayList<>();
+
+			for (int i = 0; i < n; i++) {
+				MenuItemDto item = items[i];
+				lowerNames[i] = lower(item.getItemName());
+				ordinalById.put(item.getItemId(), i);
+				byCategory.computeIfAbsent(item.getCategoryId(), k -> new ArrayList<>()).add(i);
+				if (item.getPrice() != null) {
+					priced.add(i);
+				}
+			}
+
+			ordinalsByCategory = new HashMap<>(byCategory.size() * 2);
+			byCategory.forEach((categoryId, ordinals) ->
+					ordinalsByCategory.put(categoryId, ordinals.stream().mapToInt(Integer::intValue).toArray()));
+
+			priced.sort(Comparator.comparing((Integer i) -> items[i].getPrice()).thenComparing(i -> i));
+			ordinalsByPrice = priced.stream().mapToInt(Integer::intValue).toArray();
+			sortedPrices = new double[ordinalsByPrice.length];
+			for (int i = 0; i < ordinalsByPrice.length; i++) {
+				sortedPrices[i] = items[ordinalsByPrice[i]].getPrice();
+			}
+
+			searchIndex = new MenuSearchIndex(items);
+
+			itemDigests = new byte[n][];
+			MessageDigest whole = sha256();
+			for (int i = 0; i < n; i++) {
+				Integer previousOrdinal = previous == null ? null : previous.ordinalById.get(items[i].getItemId());
+				itemDigests[i] = previousOrdinal != null && previous.items[previousOrdinal] == items[i]
+						? previous.itemDigests[previousOrdinal]
+						: digest(items[i]);
+				whole.update(itemDigests[i]);
+			}
+			contentVersion = toLong(whole.digest());
+
+			tagVersions = new HashMap<>(ordinalsByCategory.size() * 2);
+			ordinalsByCategory.forEach((categoryId, ordinals) -> {
+				MessageDigest version = sha256();
+				for (int ordinal : ordinals) {
+					version.update(itemDigests[ordinal]);
+				}
+				tagVersions.put(categoryTag(categoryId), toLong(version.digest()));
+			});
+		}
+
+		public static String categoryTag(String categoryId) {
+			return "category:" + categoryId;
+		}
+
+		/**
+		 * Version of everything carrying the tag; changes only when one of that
+		 * category's items changes. 0 when nothing carries it.
+		 */
+		public long tagVersion(String tag) {
+			return tagVersions.getOrDefault(tag, 0L);
+		}
+
+		// Same idea for the whole menu
+		public long contentVersion() {
+			return contentVersion;
+		}
+
+		/**
+		 * A new snapshot with one item replaced, added, or removed when item is null.
+		 * The indexes are built again (the menu is small), only the item digests
+		 * of the other items are carried over.
+		 */
+		Snapshot with(String itemId, MenuItemDto item) {
+			List<MenuItemDto> next = new ArrayList<>(items.length + 1);
+			for (MenuItemDto existing : items) {
+				if (!existing.getItemId().equals(itemId)) {
+					next.add(existing);
+				}
+			}
+			if (item != null) {
+				next.add(item);
+			}
+			return new Snapshot(next, this);
+		}
+
+		public int size() {
+			return items.length;
+		}
+
+		public MenuItemDto get(String itemId) {
+			Integer ordinal = ordinalById.get(itemId);
+			return ordinal == null ? null : items[ordinal];
+		}
+
+		public List<MenuItemDto> byCategory(String categoryId) {
+			if (categoryId == null) {
+				return List.of(items);
+			}
+			return toItems(ordinalsByCategory.getOrDefault(categoryId, NONE));
+		}
+
+		/**
+		 * Menu listing and search. With q the results are ranked by MenuSearchIndex
+		 * (name and description, typo tolerant); without it they are in name order.
+		 * Category is exact and price bounds are inclusive. The most selective index
+		 * gives the candidates and the other filters are checked on those.
+		 */
+		public PageResponse<MenuItemDto> search(String q, String category, Double minPrice, Double maxPrice,
+				int page, int limit) {
+			if (page < 0 || limit < 1) {
+				throw new AppException("Invalid page or limit", HttpStatus.BAD_REQUEST);
+			}
+
+			String categoryId = category == null || category.isEmpty() ? null : category;
+			boolean priceFilter = minPrice != null || maxPrice != null;
+
+			int[] candidates = null;
+			boolean ranked = q != null && !q.isBlank();
+			boolean nameOrdered = true;
+
+			if (ranked) {
+				candidates = searchIndex.search(q, Integer.MAX_VALUE);
+			} else {
+				if (categoryId != null) {
+					candidates = ordinalsByCategory.getOrDefault(categoryId, NONE);
+				}
+				if (priceFilter) {
+					int from = minPrice == null ? 0 : lowerBound(sortedPrices, minPrice);
+					int to = maxPrice == null ? sortedPrices.length : upperBound(sortedPrices, maxPrice);
+					if (candidates == null || Math.max(0, to - from) < candidates.length) {
+						candidates = from < to ? Arrays.copyOfRange(ordinalsByPrice, from, to) : NONE;
+						nameOrdered = false;
+					}
+				}
+				if (candidates == null) {
+					candidates = range(0, items.length);
+				}
+			}
+
+			int[] matches = new int[candidates.length];
+			int count = 0;
+			for (int ordinal : candidates) {
+				MenuItemDto item = items[ordinal];
+				if (categoryId != null && !categoryId.equals(item.getCategoryId())) continue;
+				if (priceFilter) {
+					Double price = item.getPrice();
+					if (price == null) continue;
+					if (minPrice != null && price < minPrice) continue;
+					if (maxPrice != null && price > maxPrice) continue;
+				}
+				matches[count++] = ordinal;
+			}
+			// Ranked search keeps its order, price-index candidates go back to name order
+			if (!ranked && !nameOrdered) {
+				Arrays.sort(matches, 0, count);
+			}
+
+			int totalPages = (count + limit - 1) / limit;
+			long offset = (long) page * limit;
+			int from = (int) Math.min(offset, count);
+			int to = (int) Math.min(offset + limit, count);
+
+			return new PageResponse<>(toItems(Arrays.copyOfRange(matches, from, to)), page, limit, count,
+					totalPages, page + 1 >= totalPages);
+		}
+
+		/**
+		 * Autocomplete: names starting with what was typed first (so "masala d"
+		 * completes to "Masala Dosa"), then ranked word matches, typos included.
+		 */
+		public List<MenuItemDto> suggest(String q, int limit) {
+			if (q == null || q.isBlank() || limit < 1) {
+				return List.of();
+			}
+
+			String prefix = lower(q.strip());
+			Set<Integer> picked = new LinkedHashSet<>();
+			int from = lowerBound(lowerNames, prefix);
+			int to = lowerBound(lowerNames, prefix + Character.MAX_VALUE);
+			for (int i = from; i < to && picked.size() < limit; i++) {
+				picked.add(i);
+			}
+			if (picked.size() < limit) {
+				// ask for extra so prefix hits already picked don't leave the list short
+				for (int ordinal : searchIndex.search(q, limit * 2)) {
+					picked.add(ordinal);
+					if (picked.size() >= limit) break;
+				}
+			}
+			return toItems(picked.stream().mapToInt(Integer::intValue).toArray());
+		}
+
+		private List<MenuItemDto> toItems(int[] ordinals) {
+			List<MenuItemDto> result = new ArrayList<>(ordinals.length);
+			for (int ordinal : ordinals) {
+				result.add(items[ordinal]);
+			}
+			return result;
+		}
+
+		private static int[] range(int from, int to) {
+			int[] result = new int[Math.max(0, to - from)];
+			for (int i = 0; i < result.length; i++) {
+				result[i] = from + i;
+			}
+			return result;
+		}
+
+		private static int lowerBound(String[] sorted, String key) {
+			int lo = 0, hi = sorted.length;
+			while (lo < hi) {
+				int mid = (lo + hi) >>> 1;
+				if (sorted[mid].compareTo(key) < 0) lo = mid + 1;
+				else hi = mid;
+			}
+			return lo;
+		}
+
+		private static int lowerBound(double[] sorted, double key) {
+			int lo = 0, hi = sorted.length;
+			while (lo < hi) {
+				int mid = (lo + hi) >>> 1;
+				if (sorted[mid] < key) lo = mid + 1;
+				else hi = mid;
+			}
+			return lo;
+		}
+
+		private static int upperBound(double[] sorted, double key) {
+			int lo = 0, hi = sorted.length;
+			while (lo < hi) {
+				int mid = (lo + hi) >>> 1;
+				if (sorted[mid] <= key) lo = mid + 1;
+				else hi = mid;
+			}
+			return lo;
+		}
+
+		// Each field length-prefixed, so no two different items feed the same bytes
+		private static byte[] digest(MenuItemDto item) {
+			MessageDigest digest = sha256();
+			for (Object field : new Object[] { item.getItemId(), item.getItemName(), item.getDescription(),
+					item.getPrice(), item.getImgUrl(), item.getCategoryId(), item.getCategoryName(),
+					item.getIsAvailable(), item.getCreatedAt(), item.getUpdatedAt() }) {
+				byte[] bytes = field == null ? new byte[0] : field.toString().getBytes(StandardCharsets.UTF_8);
+				digest.update(ByteBuffer.allocate(4).putInt(field == null ? -1 : bytes.length).array());
+				digest.update(bytes);
+			}
+			return digest.digest();
+		}
+
+		private static MessageDigest sha256() {
+			try {
+				return MessageDigest.getInstance("SHA-256");
+			} catch (NoSuchAlgorithmException e) {
+				throw new IllegalStateException("SHA-256 not available", e);
+			}
+		}
+
+		private static long toLong(byte[] digest) {
+			return ByteBuffer.wrap(digest).getLong();
+		}
+
+		private static String lower(String value) {
+			return value == null ? "" : value.toLowerCase(Locale.ROOT);
+		}
+	}
+
+}
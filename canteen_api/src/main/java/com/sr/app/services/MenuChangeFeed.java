@@ -0,0 +1,200 @@
+package com.sr.app.services;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.sr.app.constants.MenuChangeConstants;
+import com.sr.app.mapper.Mapper;
+import com.sr.app.models.ItemCategory;
+import com.sr.app.models.MenuChangeLog;
+import com.sr.app.models.MenuItems;
+import com.sr.app.response.MenuChangesResponse;
+import com.sr.app.respos.CategoryRepo;
+import com.sr.app.respos.MenuChangeLogRepo;
+import com.sr.app.respos.MenuItemRespo;
+
+/**
+ * Menu writes go through here so each one commits together with its
+ * menu_change_log row, and clients can then ask for just the changes after the
+ * version they hold.
+ *
+ * Versions are auto-increment ids, assigned at insert but visible at commit, so
+ * a lower version can show up after a higher one. A delta stops at a gap unless
+ * the change after it is older than gap-grace-ms (by then the missing one was
+ * rolled back), and a full snapshot's version is held back the same way.
+ */
+@Service
+public class MenuChangeFeed {
+
+	private static final Logger logger = LoggerFactory.getLogger(MenuChangeFeed.class);
+
+	@Autowired
+	private MenuChangeLogRepo changeLogRepo;
+
+	@Autowired
+	private MenuItemRespo itemRespo;
+
+	@Autowired
+	private CategoryRepo categoryRepo;
+
+	@Autowired
+	private Mapper mapper;
+
+	// Past this many changes the full menu is about as small as the delta
+	@Value("${menu.changes.max-changes:500}")
+	private int maxChanges;
+
+	@Value("${menu.changes.gap-grace-ms:5000}")
+	private long gapGraceMs;
+
+	@Value("${menu.changes.retention-days:7}")
+	private long retentionDays;
+
+	@Transactional
+	public MenuItems saveItem(MenuItems item) {
+		MenuItems saved = itemRespo.save(item);
+		record(MenuChangeConstants.ITEM, saved.getItemId(), MenuChangeConstants.UPSERT);
+		return saved;
+	}
+
+	@Transactional
+	public void deleteItem(String itemId) {
+		itemRespo.deleteById(itemId);
+		record(MenuChangeConstants.ITEM, itemId, MenuChangeConstants.DELETE);
+	}
+
+	@Transactional
+	public ItemCategory saveCategory(ItemCategory category) {
+		ItemCategory saved = categoryRepo.save(category);
+		record(MenuChangeConstants.CATEGORY, saved.getCategoryId(), MenuChangeConstants.UPSERT);
+		return saved;
+	}
+
+	@Transactional
+	public void deleteCategory(String categoryId) {
+		categoryRepo.deleteById(categoryId);
+		record(MenuChangeConstants.CATEGORY, categoryId, MenuChangeConstants.DELETE);
+	}
+
+	/**
+	 * Upserts and deletes after since, latest state only. Falls back to the full
+	 * menu when since is missing, older than the retained log, newer than the log
+	 * (a reset database), or too far behind.
+	 */
+	@Transactional(readOnly = true)
+	public MenuChangesResponse changesSince(Long since) {
+		if (since == null || since < 0) {
+			return snapshot();
+		}
+		Long oldest = changeLogRepo.findMinVersion();
+		Long latest = changeLogRepo.findMaxVersion();
+		if (latest == null || since > latest || since < oldest - 1) {
+			return snapshot();
+		}
+
+		List<MenuChangeLog> rows = changeLogRepo.findByVersionGreaterThanOrderByVersion(since,
+				PageRequest.of(0, maxChanges + 1));
+		if (rows.size() > maxChanges) {
+			return snapshot();
+		}
+
+		LocalDateTime settled = LocalDateTime.now().minusNanos(gapGraceMs * 1_000_000);
+		long cursor = since;
+		// entity -> last operation, later rows win
+		Map<String, String> itemOps = new LinkedHashMap<>();
+		Map<String, String> categoryOps = new LinkedHashMap<>();
+		for (MenuChangeLog row : rows) {
+			if (row.getVersion() != cursor + 1 && row.getChangedAt().isAfter(settled)) {
+				// an earlier version may still be committing, pick up from here next time
+				break;
+			}
+			Map<String, String> ops = MenuChangeConstants.ITEM.equals(row.getEntityType()) ? itemOps : categoryOps;
+			ops.put(row.getEntityId(), row.getOperation());
+			cursor = row.getVersion();
+		}
+
+		MenuChangesResponse response = new MenuChangesResponse();
+		response.setVersion(cursor);
+
+		Set<String> itemIds = upserted(itemOps);
+		if (!itemIds.isEmpty()) {
+			itemRespo.findAllWithCategoryByItemIdIn(itemIds).forEach(i -> response.getItems().add(mapper.toDto(i)));
+		}
+		// upserted and then deleted by a change past the cursor: report it gone now
+		Set<String> foundItems = response.getItems().stream().map(i -> i.getItemId()).collect(Collectors.toSet());
+		itemOps.forEach((id, op) -> {
+			if (!foundItems.contains(id)) response.getDeletedItemIds().add(id);
+		});
+
+		Set<String> categoryIds = upserted(categoryOps);
+		if (!categoryIds.isEmpty()) {
+			categoryRepo.findAllById(categoryIds).forEach(c -> response.getCategories().add(mapper.toDto(c)));
+		}
+		Set<String> foundCategories = response.getCategories().stream().map(c -> c.getCategoryId()).collect(Collectors.toSet());
+		categoryOps.forEach((id, op) -> {
+			if (!foundCategories.contains(id)) response.getDeletedCategoryIds().add(id);
+		});
+		return response;
+	}
+
+	// Version read before the data, so a change racing the read is replayed rather than missed
+	private MenuChangesResponse snapshot() {
+		Long recent = changeLogRepo.findMinVersionChangedSince(LocalDateTime.now().minusNanos(gapGraceMs * 1_000_000));
+		Long latest = changeLogRepo.findMaxVersion();
+
+		MenuChangesResponse response = new MenuChangesResponse();
+		response.setFull(true);
+		response.setVersion(recent != null ? recent - 1 : latest != null ? latest : 0);
+		response.setItems(new ArrayList<>(itemRespo.findAllWithCategory().stream().map(mapper::toDto).toList()));
+		response.setCategories(new ArrayList<>(categoryRepo.findAll().stream().map(mapper::toDto).toList()));
+		return response;
+	}
+
+	// The newest row always stays: with an empty log every client would be sent the full
+	// menu until the next edit, and a restarted MySQL could hand out its version again
+	@Scheduled(fixedDelayString = "${menu.changes.prune-ms:3600000}")
+	public void prune() {
+		try {
+			Long latest = changeLogRepo.findMaxVersion();
+			if (latest == null) {
+				return;
+			}
+			int removed = changeLogRepo.deleteChangedBefore(LocalDateTime.now().minusDays(retentionDays), latest);
+			if (removed > 0) {
+				logger.debug("Pruned {} menu change log rows", removed);
+			}
+		} catch (RuntimeException e) {
+			logger.warn("Could not prune the menu change log: {}", e.getMessage());
+		}
+	}
+
+	private void record(String entityType, String entityId, String operation) {
+		MenuChangeLog row = new MenuChangeLog();
+		row.setEntityType(entityType);
+		row.setEntityId(entityId);
+		row.setOperation(operation);
+		changeLogRepo.save(row);
+	}
+
+	private static Set<String> upserted(Map<String, String> ops) {
+		return ops.entrySet().stream()
+				.filter(e -> MenuChangeConstants.UPSERT.equals(e.getValue()))
+				.map(Map.Entry::getKey)
+				.collect(Collectors.toSet());
+	}
+
+}
@@ -0,0 +1,287 @@
+package com.sr.app.services;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+import com.sr.app.dto.MenuItemDto;
+
+/**
+ * Word index over item names and descriptions, built once per MenuCatalog
+ * snapshot. Each query word matches index terms exactly, by prefix, or within a
+ * small edit distance (trigrams pick the candidate terms, so "panner" finds
+ * "paneer"). Items are ranked by how many query words they match, then by score;
+ * a name hit weighs more than a description hit.
+ */
+final class MenuSearchIndex {
+
+	private static final double NAME_WEIGHT = 3;
+
+	private static final double DESCRIPTION_WEIGHT = 1;
+
+	private static final double EXACT_SCORE = 1.0;
+
+	private static final int MAX_PREFIX_TERMS = 64;
+
+	private static final int MIN_FUZZY_LENGTH = 3;
+
+	private static final int[] NONE = new int[0];
+
+	private static final Pattern NON_WORD = Pattern.compile("[^\\p{L}\\p{N}]+");
+
+	// Distinct lowercase words, sorted for prefix ranges
+	private final String[] terms;
+
+	// Per term, ascending item ordinals containing it in the name / description
+	private final int[][] namePostings;
+
+	private final int[][] descriptionPostings;
+
+	private final Map<String, int[]> termsByTrigram;
+
+	private final int itemCount;
+
+	MenuSearchIndex(MenuItemDto[] items) {
+		itemCount = items.length;
+		Map<String, List<Integer>> inName = new HashMap<>();
+		Map<String, List<Integer>> inDescription = new HashMap<>();
+		for (int ordinal = 0; ordinal < items.length; ordinal++) {
+			for (String word : distinctWords(items[ordinal].getItemName())) {
+				inName.computeIfAbsent(word, k -> new ArrayList<>()).add(ordinal);
+			}
+			for (String word : distinctWords(items[ordinal].getDescription())) {
+				inDescription.computeIfAbsent(word, k -> new ArrayList<>()).add(ordinal);
+			}
+		}
+
+		Set<String> vocabulary = new HashSet<>(inName.keySet());
+		vocabulary.addAll(inDescription.keySet());
+		terms = vocabulary.toArray(new String[0]);
+		Arrays.sort(terms);
+
+		namePostings = new int[terms.length][];
+		descriptionPostings = new int[terms.length][];
+		Map<String, List<Integer>> byTrigram = new HashMap<>();
+		for (int t = 0; t < terms.length; t++) {
+			namePostings[t] = toArray(inName.get(terms[t]));
+			descriptionPostings[t] = toArray(inDescription.get(terms[t]));
+			for (String trigram : trigrams(terms[t])) {
+				byTrigram.computeIfAbsent(trigram, k -> new ArrayList<>()).add(t);
+			}
+		}
+
+		termsByTrigram = new HashMap<>(byTrigram.size() * 2);
+		byTrigram.forEach((trigram, termIds) -> termsByTrigram.put(trigram, toArray(termIds)));
+	}
+
+	/**
+	 * Item ordinals matching at least one query word, best first, at most limit of them.
+	 */
+	int[] search(String query, int limit) {
+		List<Map<Integer, Double>> termMatches = new ArrayList<>();
+		for (String word : words(query)) {
+			Map<Integer, Double> matches = matchTerms(word);
+			if (!matches.isEmpty()) {
+				termMatches.add(matches);
+			}
+		}
+		if (termMatches.isEmpty() || limit < 1) {
+			return NONE;
+		}
+
+		// Dense per-item accumulators; only the touched entries are read back
+		int[] matchedWords = new int[itemCount];
+		double[] scores = new double[itemCount];
+		double[] wordBest = new double[itemCount];
+		int[] touched = new int[itemCount];
+		int touchedCount = 0;
+		int[] wordTouched = new int[itemCount];
+
+		for (Map<Integer, Double> matches : termMatches) {
+			int wordTouchedCount = 0;
+			for (Map.Entry<Integer, Double> match : matches.entrySet()) {
+				int term = match.getKey();
+				double termScore = match.getValue();
+				for (int pass = 0; pass < 2; pass++) {
+					int[] postings = pass == 0 ? namePostings[term] : descriptionPostings[term];
+					double score = termScore * (pass == 0 ? NAME_WEIGHT : DESCRIPTION_WEIGHT);
+					for (int ordinal : postings) {
+						if (wordBest[ordinal] == 0) {
+							wordTouched[wordTouchedCount++] = ordinal;
+						}
+						wordBest[ordinal] = Math.max(wordBest[ordinal], score);
+					}
+				}
+			}
+			for (int i = 0; i < wordTouchedCount; i++) {
+				int ordinal = wordTouched[i];
+				if (matchedWords[ordinal] == 0) {
+					touched[touchedCount++] = ordinal;
+				}
+				matchedWords[ordinal]++;
+				scores[ordinal] += wordBest[ordinal];
+				wordBest[ordinal] = 0;
+			}
+		}
+
+		// Bounded insertion keeps autocomplete at O(hits * limit) instead of a full sort
+		int size = Math.min(limit, touchedCount);
+		if (size < touchedCount && size <= 32) {
+			int[] top = new int[size];
+			int filled = 0;
+			for (int i = 0; i < touchedCount; i++) {
+				int ordinal = touched[i];
+				if (filled == size && !ranksBefore(ordinal, top[size - 1], matchedWords, scores)) {
+					continue;
+				}
+				int j = filled < size ? filled++ : size - 1;
+				while (j > 0 && ranksBefore(ordinal, top[j - 1], matchedWords, scores)) {
+					top[j] = top[j - 1];
+					j--;
+				}
+				top[j] = ordinal;
+			}
+			return top;
+		}
+
+		Integer[] ranked = new Integer[touchedCount];
+		for (int i = 0; i < touchedCount; i++) {
+			ranked[i] = touched[i];
+		}
+		Arrays.sort(ranked, (a, b) -> ranksBefore(a, b, matchedWords, scores) ? -1 : ranksBefore(b, a, matchedWords, scores) ? 1 : 0);
+		int[] result = new int[size];
+		for (int i = 0; i < size; i++) {
+			result[i] = ranked[i];
+		}
+		return result;
+	}
+
+	// More query words matched, then higher score, then name order
+	private static boolean ranksBefore(int a, int b, int[] matchedWords, double[] scores) {
+		if (matchedWords[a] != matchedWords[b]) return matchedWords[a] > matchedWords[b];
+		if (scores[a] != scores[b]) return scores[a] > scores[b];
+		return a < b;
+	}
+
+	// term id -> score in (0, 1]
+	private Map<Integer, Double> matchTerms(String word) {
+		Map<Integer, Double> matches = new LinkedHashMap<>();
+
+		int from = lowerBound(word);
+		int to = lowerBound(word + Character.MAX_VALUE);
+		for (int t = from; t < to && t - from < MAX_PREFIX_TERMS; t++) {
+			// "pan" ranks "paneer" above "pancake-batter-mix"
+			double score = terms[t].length() == word.length()
+					? EXACT_SCORE
+					: 0.6 + 0.3 * word.length() / terms[t].length();
+			matches.put(t, score);
+		}
+
+		if (word.length() >= MIN_FUZZY_LENGTH) {
+			int maxDistance = word.length() <= 4 ? 1 : 2;
+			List<String> wordTrigrams = trigrams(word);
+			// each edit touches at most three trigrams
+			int minShared = Math.max(1, wordTrigrams.size() - 3 * maxDistance);
+
+			Map<Integer, Integer> shared = new HashMap<>();
+			for (String trigram : wordTrigrams) {
+				for (int t : termsByTrigram.getOrDefault(trigram, NONE)) {
+					shared.merge(t, 1, Integer::sum);
+				}
+			}
+			shared.forEach((t, count) -> {
+				if (count < minShared || matches.containsKey(t)
+						|| Math.abs(terms[t].length() - word.length()) > maxDistance) {
+					return;
+				}
+				int distance = editDistance(word, terms[t], maxDistance);
+				if (distance <= maxDistance) {
+					matches.put(t, 0.5 / distance);
+				}
+			});
+		}
+		return matches;
+	}
+
+	private int lowerBound(String key) {
+		int lo = 0, hi = terms.length;
+		while (lo < hi) {
+			int mid = (lo + hi) >>> 1;
+			if (terms[mid].compareTo(key) < 0) lo = mid + 1;
+			else hi = mid;
+		}
+		return lo;
+	}
+
+	/**
+	 * Optimal string alignment distance (adjacent swaps count as one edit),
+	 * giving up with max + 1 once every cell of a row is past max.
+	 */
+	static int editDistance(String a, String b, int max) {
+		int[] previous2 = new int[b.length() + 1];
+		int[] previous = new int[b.length() + 1];
+		int[] current = new int[b.length() + 1];
+		for (int j = 0; j <= b.length(); j++) {
+			previous[j] = j;
+		}
+		for (int i = 1; i <= a.length(); i++) {
+			current[0] = i;
+			int rowMin = current[0];
+			for (int j = 1; j <= b.length(); j++) {
+				int cost = a.charAt(i - 1) == b.charAt(j - 1) ? 0 : 1;
+				int value = Math.min(Math.min(previous[j] + 1, current[j - 1] + 1), previous[j - 1] + cost);
+				if (i > 1 && j > 1 && a.charAt(i - 1) == b.charAt(j - 2) && a.charAt(i - 2) == b.charAt(j - 1)) {
+					value = Math.min(value, previous2[j - 2] + 1);
+				}
+				current[j] = value;
+				rowMin = Math.min(rowMin, value);
+			}
+			if (rowMin > max) {
+				return max + 1;
+			}
+			int[] recycled = previous2;
+			previous2 = previous;
+			previous = current;
+			current = recycled;
+		}
+		return previous[b.length()];
+	}
+
+	static List<String> words(String text) {
+		List<String> words = new ArrayList<>();
+		if (text == null) {
+			return words;
+		}
+		for (String word : NON_WORD.split(text.toLowerCase(Locale.ROOT))) {
+			if (!word.isEmpty()) {
+				words.add(word);
+			}
+		}
+		return words;
+	}
+
+	private static List<String> distinctWords(String text) {
+		return words(text).stream().distinct().toList();
+	}
+
+	private static List<String> trigrams(String term) {
+		String padded = "$" + term + "$";
+		List<String> trigrams = new ArrayList<>(padded.length());
+		for (int i = 0; i + 3 <= padded.length(); i++) {
+			trigrams.add(padded.substring(i, i + 3));
+		}
+		return trigrams;
+	}
+
+	private static int[] toArray(List<Integer> values) {
+		return values == null ? NONE : values.stream().mapToInt(Integer::intValue).toArray();
+	}
+
+}
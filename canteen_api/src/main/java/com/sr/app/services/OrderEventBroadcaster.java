@@ -0,0 +1,235 @@
+package com.sr.app.services;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sr.app.dto.OrderEventDto;
+import com.sr.app.dto.OrderUserDto;
+import com.sr.app.exception.AppException;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Pushes order-created and status-changed events to connected kitchen screens.
+ * Events go through Redis pub/sub so every node sees them, each node keeps the
+ * last few in memory for Last-Event-ID replay, and one serialized payload is
+ * written to all screens.
+ *
+ * Ids come from a Redis INCR made before publishing, so two publishers can
+ * deliver them out of order; the replay buffer is kept sorted by id. Writes to
+ * the screens happen on one sender thread, never the shared Redis listener
+ * thread, and tasks are queued under the same lock that orders the buffer, so
+ * each screen gets its replay before any live event that follows it.
+ */
+@Service
+public class OrderEventBroadcaster implements MessageListener {
+
+	private static final Logger logger = LoggerFactory.getLogger(OrderEventBroadcaster.class);
+
+	private static final String CHANNEL = "order:events";
+
+	private static final String SEQUENCE_KEY = "order:events:seq";
+
+	@Autowired
+	private StringRedisTemplate redisTemplate;
+
+	@Autowired
+	private RedisMessageListenerContainer listenerContainer;
+
+	@Autowired
+	private ObjectMapper objectMapper;
+
+	@Autowired
+	private OrderStatsCounter orderStatsCounter;
+
+	@Value("${orders.events.replay-size:1000}")
+	private int replaySize;
+
+	@Value("${orders.events.max-subscribers:500}")
+	private int maxSubscribers;
+
+	@Value("${orders.events.emitter-timeout-ms:1800000}")
+	private long emitterTimeoutMs;
+
+	@Value("${orders.events.send-queue-size:1000}")
+	private int sendQueueSize;
+
+	// guarded by this; the most recent events by id
+	private final NavigableMap<Long, BufferedEvent> recent = new TreeMap<>();
+
+	private final List<SseEmitter> emitters = new CopyOnWriteArrayList<>();
+
+	// One thread, so every screen sees its events in the order they were queued
+	private ThreadPoolExecutor sender;
+
+	@PostConstruct
+	void listen() {
+		sender = new ThreadPoolExecutor(1, 1, 0, TimeUnit.MILLISECONDS, new ArrayBlockingQueue<>(sendQueueSize), r -> {
+			Thread thread = new Thread(r, "order-events");
+			thread.setDaemon(true);
+			return thread;
+		}, new ThreadPoolExecutor.AbortPolicy());
+		listenerContainer.addMessageListener(this, new ChannelTopic(CHANNEL));
+	}
+
+	@PreDestroy
+	void stop() {
+		sender.shutdownNow();
+	}
+
+	public void orderCreated(OrderUserDto created) {
+		OrderEventDto event = new OrderEventDto();
+		event.setType(OrderEventDto.ORDER_CREATED);
+		event.setOrderIds(List.of(created.getOrder().getOrderId()));
+		event.setStatus(created.getOrder().getStatus());
+		event.setOrder(created.getOrder());
+		event.setUser(created.getUser());
+		publish(event);
+	}
+
+	public void statusChanged(List<String> orderIds, String status) {
+		OrderEventDto event = new OrderEventDto();
+		event.setType(OrderEventDto.STATUS_CHANGED);
+		event.setOrderIds(orderIds);
+		event.setStatus(status);
+		publish(event);
+	}
+
+	private void publish(OrderEventDto event) {
+		try {
+			event.setId(redisTemplate.opsForValue().increment(SEQUENCE_KEY));
+			event.setOccurredAt(LocalDateTime.now());
+			// The counters were bumped in an earlier after-commit hook of the same transaction
+			event.setStats(orderStatsCounter.snapshot());
+			redisTemplate.convertAndSend(CHANNEL, objectMapper.writeValueAsString(event));
+		} catch (JsonProcessingException | RuntimeException e) {
+			// screens catch up on their next full reload
+			logger.warn("Could not publish order event {}: {}", event.getType(), e.getMessage());
+		}
+	}
+
+	@Override
+	public void onMessage(Message message, byte[] pattern) {
+		String json = new String(message.getBody());
+		OrderEventDto event;
+		try {
+			event = objectMapper.readValue(json, OrderEventDto.class);
+		} catch (IOException e) {
+			logger.warn("Dropping malformed order event: {}", e.getMessage());
+			return;
+		}
+
+		BufferedEvent buffered = new BufferedEvent(event.getId(), event.getType(), json);
+		synchronized (this) {
+			recent.put(buffered.id(), buffered);
+			if (recent.size() > replaySize) {
+				recent.pollFirstEntry();
+			}
+			List<SseEmitter> targets = new ArrayList<>(emitters);
+			try {
+				sender.execute(() -> targets.forEach(emitter -> send(emitter, buffered)));
+			} catch (RejectedExecutionException e) {
+				// The event is buffered; closing makes the screens reconnect and replay it
+				logger.warn("Order event sender is backed up, closing {} streams", targets.size());
+				targets.forEach(this::close);
+			}
+		}
+	}
+
+	/**
+	 * Opens a stream, first replaying what the client missed after lastEventId.
+	 * If that is older than what we still hold, the client gets a RESYNC event
+	 * and should reload the board once.
+	 */
+	public SseEmitter subscribe(Long lastEventId) {
+		if (emitters.size() >= maxSubscribers) {
+			throw new AppException("Too many order board connections", HttpStatus.SERVICE_UNAVAILABLE);
+		}
+
+		SseEmitter emitter = new SseEmitter(emitterTimeoutMs);
+		emitter.onCompletion(() -> emitters.remove(emitter));
+		emitter.onTimeout(() -> emitters.remove(emitter));
+		emitter.onError(e -> emitters.remove(emitter));
+
+		synchronized (this) {
+			boolean resync = lastEventId != null && (recent.isEmpty() || recent.firstKey() > lastEventId + 1);
+			List<BufferedEvent> replay = lastEventId == null
+					? List.of()
+					: new ArrayList<>(recent.tailMap(lastEventId, false).values());
+			try {
+				sender.execute(() -> {
+					if (resync) {
+						sendRaw(emitter, SseEmitter.event().name("RESYNC").data("{}", MediaType.APPLICATION_JSON));
+					}
+					replay.forEach(event -> send(emitter, event));
+				});
+			} catch (RejectedExecutionException e) {
+				throw new AppException("Order board is busy, try again shortly", HttpStatus.SERVICE_UNAVAILABLE);
+			}
+			emitters.add(emitter);
+		}
+		return emitter;
+	}
+
+	// Keeps idle connections open through proxies and drops screens that went away
+	@Scheduled(fixedDelayString = "${orders.events.heartbeat-ms:15000}")
+	public void heartbeat() {
+		try {
+			sender.execute(() -> emitters.forEach(emitter -> sendRaw(emitter, SseEmitter.event().comment("ping"))));
+		} catch (RejectedExecutionException e) {
+			// events are queued, they keep the connections busy anyway
+		}
+	}
+
+	private void send(SseEmitter emitter, BufferedEvent event) {
+		sendRaw(emitter, SseEmitter.event()
+				.id(String.valueOf(event.id()))
+				.name(event.type())
+				.data(event.json(), MediaType.APPLICATION_JSON));
+	}
+
+	private void sendRaw(SseEmitter emitter, SseEmitter.SseEventBuilder event) {
+		try {
+			emitter.send(event);
+		} catch (IOException | IllegalStateException e) {
+			emitters.remove(emitter);
+			emitter.completeWithError(e);
+		}
+	}
+
+	private void close(SseEmitter emitter) {
+		emitters.remove(emitter);
+		emitter.complete();
+	}
+
+	private record BufferedEvent(long id, String type, String json) {
+	}
+
+}
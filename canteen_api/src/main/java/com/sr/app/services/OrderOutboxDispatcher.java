@@ -0,0 +1,206 @@
+package com.sr.app.services;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import org.json.JSONObject;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import com.razorpay.Order;
+import com.razorpay.RazorpayClient;
+import com.sr.app.constants.OrderStatusConstants;
+import com.sr.app.constants.OutboxStatusConstants;
+import com.sr.app.models.OrderOutbox;
+import com.sr.app.respos.CartRepo;
+import com.sr.app.respos.OrderOutboxRepo;
+import com.sr.app.respos.OrderRepo;
+import com.sr.app.utils.IdGeneration;
+import com.sr.app.utils.TransactionHooks;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Drains the order outbox off the request path: creates the Razorpay order
+ * and clears the user's cart, retrying with backoff.
+ *
+ * The gateway order id is written to Orders the moment Razorpay returns it,
+ * and every attempt reads it back from there first, so a retry after a later
+ * step failed (or the node died) never creates a second gateway order. The
+ * claim lease outlasts the gateway client's own timeouts, so a slow call can't
+ * be claimed again by another node while it is still running.
+ */
+@Component
+public class OrderOutboxDispatcher {
+
+	private static final Logger logger = LoggerFactory.getLogger(OrderOutboxDispatcher.class);
+
+	// razorpay-java's fixed OkHttp timeouts: 10s connect, 60s write, 60s read
+	private static final long GATEWAY_TIMEOUT_MS = 130_000;
+
+	@Autowired
+	private OrderOutboxRepo outboxRepo;
+
+	@Autowired
+	private OrderRepo orderRepo;
+
+	@Autowired
+	private CartRepo cartRepo;
+
+	@Autowired
+	private RazorpayClient razorpayClient;
+
+	@Autowired
+	private OrderStatsCounter orderStatsCounter;
+
+	@Autowired
+	private OrderEventBroadcaster orderEventBroadcaster;
+
+	@Value("${outbox.dispatcher.batch-size:20}")
+	private int batchSize;
+
+	@Value("${outbox.dispatcher.max-attempts:8}")
+	private int maxAttempts;
+
+	@Value("${outbox.dispatcher.backoff-ms:1000}")
+	private long backoffMs;
+
+	@Value("${outbox.dispatcher.lease-ms:180000}")
+	private long leaseMs;
+
+	// Single drainer per node; a wake-up while one drain is running and another is queued is dropped
+	private final ThreadPoolExecutor worker = new ThreadPoolExecutor(1, 1, 0, TimeUnit.MILLISECONDS,
+			new ArrayBlockingQueue<>(1), r -> new Thread(r, "order-outbox"), new ThreadPoolExecutor.DiscardPolicy());
+
+	@PostConstruct
+	void checkLease() {
+		if (leaseMs <= GATEWAY_TIMEOUT_MS) {
+			throw new IllegalStateException("outbox.dispatcher.lease-ms must be longer than the gateway timeout of "
+					+ GATEWAY_TIMEOUT_MS + " ms");
+		}
+	}
+
+	/**
+	 * Called after an order transaction commits so the gateway order is created
+	 * right away instead of on the next tick.
+	 */
+	public void wakeUp() {
+		worker.execute(this::drain);
+	}
+
+	@Scheduled(fixedDelayString = "${outbox.dispatcher.delay-ms:500}")
+	public void poll() {
+		wakeUp();
+	}
+
+	private void drain() {
+		List<String> dueIds;
+		do {
+			LocalDateTime now = LocalDateTime.now();
+			dueIds = outboxRepo.findDueIds(now, PageRequest.of(0, batchSize));
+
+			for (String id : dueIds) {
+				if (outboxRepo.claim(id, now, now.plus(Duration.ofMillis(leaseMs))) == 1) {
+					process(id);
+				}
+			}
+		} while (dueIds.size() == batchSize);
+	}
+
+	private void process(String id) {
+		OrderOutbox entry = outboxRepo.findById(id).orElse(null);
+		if (entry == null) {
+			return;
+		}
+
+		LocalDateTime now = LocalDateTime.now();
+		try {
+			entry.setRazorpayOrderId(gatewayOrderId(entry, now));
+
+			cartRepo.deleteByUser(entry.getUserId());
+
+			entry.setStatus(OutboxStatusConstants.DONE);
+			entry.setLastError(null);
+		} catch (Exception e) {
+			int attempts = entry.getAttempts() + 1;
+			entry.setAttempts(attempts);
+			entry.setLastError(abbreviate(e.getMessage()));
+
+			if (attempts >= maxAttempts) {
+				logger.error("Giving up on outbox entry {} for order {}", id, entry.getOrderId(), e);
+				entry.setStatus(OutboxStatusConstants.FAILED);
+				String transitionId = IdGeneration.newId();
+				int moved = orderRepo.transitionStatus(List.of(entry.getOrderId()), OrderStatusConstants.allowedSources(OrderStatusConstants.FAILED),
+						OrderStatusConstants.FAILED, transitionId, now);
+				if (moved > 0) {
+					orderStatsCounter.recordTransition(transitionId, OrderStatusConstants.FAILED, moved);
+					String orderId = entry.getOrderId();
+					TransactionHooks.afterCommit(() -> orderEventBroadcaster.statusChanged(List.of(orderId), OrderStatusConstants.FAILED));
+				}
+			} else {
+				logger.warn("Outbox entry {} for order {} failed (attempt {}): {}", id, entry.getOrderId(), attempts, e.getMessage());
+				entry.setStatus(OutboxStatusConstants.PENDING);
+				entry.setNextAttemptAt(now.plus(Duration.ofMillis(backoffMs << Math.min(attempts - 1, 10))));
+			}
+		}
+
+		entry.setLockedUntil(null);
+		entry.setUpdatedAt(now);
+		outboxRepo.save(entry);
+	}
+
+	// The order row is the record of the gateway order; created only when it has none yet
+	private String gatewayOrderId(OrderOutbox entry, LocalDateTime now) throws Exception {
+		String existing = orderRepo.findRazorpayOrderIdByOrderId(entry.getOrderId());
+		if (existing != null) {
+			return existing;
+		}
+
+		String created = createRazorpayOrder(entry.getOrderId(), entry.getAmount());
+		if (orderRepo.setRazorpayOrderId(entry.getOrderId(), created, now) == 1) {
+			return created;
+		}
+
+		// Another dispatcher stored one first (this call outlived its lease); theirs is the one clients see
+		String stored = orderRepo.findRazorpayOrderIdByOrderId(entry.getOrderId());
+		if (stored == null) {
+			throw new IllegalStateException("Order " + entry.getOrderId() + " no longer exists");
+		}
+		logger.warn("Order {} already has gateway order {}, {} is left unused", entry.getOrderId(), stored, created);
+		return stored;
+	}
+
+	private String createRazorpayOrder(String orderId, Double amount) throws Exception {
+		JSONObject orderRequest = new JSONObject();
+		orderRequest.put("amount", Math.round(amount * 100)); // Convert to paise
+		orderRequest.put("currency", "INR");
+		orderRequest.put("receipt", orderId);
+		orderRequest.put("payment_capture", 1);
+
+		Order razorpayOrder = razorpayClient.orders.create(orderRequest);
+		return razorpayOrder.get("id");
+	}
+
+	private String abbreviate(String message) {
+		if (message == null) {
+			return null;
+		}
+		return message.length() > 500 ? message.substring(0, 500) : message;
+	}
+
+	@PreDestroy
+	public void shutdown() {
+		worker.shutdown();
+	}
+
+}
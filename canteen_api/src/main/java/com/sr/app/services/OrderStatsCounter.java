@@ -0,0 +1,174 @@
+package com.sr.app.services;
+
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.redis.connection.RedisConnection;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import com.sr.app.constants.OrderStatusConstants;
+import com.sr.app.response.OrdersCountsResponse;
+import com.sr.app.respos.OrderRepo;
+import com.sr.app.utils.TransactionHooks;
+
+/**
+ * Per-status order counts kept in one Redis hash, bumped on every create and
+ * transition and periodically reconciled against a single GROUP BY.
+ *
+ * Only a reconcile writes the RECONCILED field. After a Redis flush or eviction
+ * the next increment recreates the hash with just the fields it touched, so a
+ * hash without that field is partial and is reconciled before it is served.
+ */
+@Service
+public class OrderStatsCounter {
+
+	private static final Logger logger = LoggerFactory.getLogger(OrderStatsCounter.class);
+
+	private static final String KEY = "order:stats";
+
+	private static final String TOTAL = "TOTAL";
+
+	private static final String RECONCILED = "RECONCILED";
+
+	@Autowired
+	private StringRedisTemplate redisTemplate;
+
+	@Autowired
+	private OrderRepo orderRepo;
+
+	public void recordCreated() {
+		increment(Map.of(OrderStatusConstants.PENDING, 1L, TOTAL, 1L));
+	}
+
+	/**
+	 * Applies the deltas of one OrderRepo.transitionStatus call that moved {@code moved} orders.
+	 * Only targets with several possible sources (CANCELLED) need to read back where they came from.
+	 */
+	public void recordTransition(String transitionId, String toStatus, int moved) {
+		Set<String> sources = OrderStatusConstants.allowedSources(toStatus);
+
+		Map<String, Long> fromCounts = new HashMap<>();
+		if (sources.size() == 1) {
+			fromCounts.put(sources.iterator().next(), (long) moved);
+		} else {
+			for (Object[] row : orderRepo.countByTransitionGroupByPreviousStatus(transitionId)) {
+				fromCounts.put((String) row[0], ((Number) row[1]).longValue());
+			}
+		}
+
+		TransactionHooks.afterCommit(() -> recordTransition(fromCounts, toStatus));
+	}
+
+	private void recordTransition(Map<String, Long> fromCounts, String toStatus) {
+		Map<String, Long> deltas = new HashMap<>();
+		long moved = 0;
+		for (Map.Entry<String, Long> from : fromCounts.entrySet()) {
+			deltas.merge(from.getKey(), -from.getValue(), Long::sum);
+			moved += from.getValue();
+		}
+		deltas.merge(toStatus, moved, Long::sum);
+		increment(deltas);
+	}
+
+	public OrdersCountsResponse snapshot() {
+		Map<String, Long> counts;
+		try {
+			counts = read();
+			if (!counts.containsKey(RECONCILED)) {
+				counts = reconcile();
+			}
+		} catch (RuntimeException e) {
+			logger.warn("Order stats unavailable from Redis, counting in DB: {}", e.getMessage());
+			counts = countFromDb();
+		}
+
+		OrdersCountsResponse response = new OrdersCountsResponse();
+		response.setTotalOrders(counts.getOrDefault(TOTAL, 0L));
+		response.setPending(counts.getOrDefault(OrderStatusConstants.PENDING, 0L));
+		response.setPaid(counts.getOrDefault(OrderStatusConstants.PAID, 0L));
+		response.setPreparing(counts.getOrDefault(OrderStatusConstants.PREPARING, 0L));
+		response.setDelivered(counts.getOrDefault(OrderStatusConstants.DELIVERED, 0L));
+		response.setCancelled(counts.getOrDefault(OrderStatusConstants.CANCELLED, 0L));
+		response.setFailed(counts.getOrDefault(OrderStatusConstants.FAILED, 0L));
+		return response;
+	}
+
+	@EventListener(ApplicationReadyEvent.class)
+	public void onStartup() {
+		scheduledReconcile();
+	}
+
+	@Scheduled(fixedDelayString = "${orders.stats.reconcile-ms:300000}", initialDelayString = "${orders.stats.reconcile-ms:300000}")
+	public void scheduledReconcile() {
+		try {
+			reconcile();
+		} catch (RuntimeException e) {
+			logger.warn("Order stats reconcile failed: {}", e.getMessage());
+		}
+	}
+
+	/**
+	 * Overwrites the counters with one GROUP BY status. Increments racing with it can be
+	 * off until the next run, which is the drift window we accept.
+	 */
+	public Map<String, Long> reconcile() {
+		Map<String, Long> counts = countFromDb();
+
+		Map<String, String> values = new HashMap<>();
+		counts.forEach((status, count) -> values.put(status, String.valueOf(count)));
+		values.put(RECONCILED, String.valueOf(System.currentTimeMillis()));
+		redisTemplate.opsForHash().putAll(KEY, values);
+
+		return counts;
+	}
+
+	private Map<String, Long> countFromDb() {
+		Map<String, Long> counts = new HashMap<>();
+		OrderStatusConstants.ALL.forEach(status -> counts.put(status, 0L));
+
+		long total = 0;
+		List<Object[]> rows = orderRepo.countGroupByStatus();
+		for (Object[] row : rows) {
+			long count = ((Number) row[1]).longValue();
+			if (row[0] != null) {
+				counts.put((String) row[0], count);
+			}
+			total += count;
+		}
+		counts.put(TOTAL, total);
+		return counts;
+	}
+
+	private Map<String, Long> read() {
+		Map<String, Long> counts = new HashMap<>();
+		redisTemplate.<String, String>opsForHash().entries(KEY)
+				.forEach((status, count) -> counts.put(status, Long.parseLong(count)));
+		return counts;
+	}
+
+	private void increment(Map<String, Long> deltas) {
+		byte[] key = KEY.getBytes(StandardCharsets.UTF_8);
+		try {
+			redisTemplate.executePipelined((RedisCallback<Object>) (RedisConnection connection) -> {
+				deltas.forEach((field, delta) -> connection.hashCommands()
+						.hIncrBy(key, field.getBytes(StandardCharsets.UTF_8), delta));
+				return null;
+			});
+		} catch (RuntimeException e) {
+			// counters catch up on the next reconcile
+			logger.warn("Could not update order stats {}: {}", deltas, e.getMessage());
+		}
+	}
+
+}
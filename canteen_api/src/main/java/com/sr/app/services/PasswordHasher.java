@@ -0,0 +1,127 @@
+package com.sr.app.services;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Component;
+
+import com.sr.app.exception.AppException;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * BCrypt on a small dedicated pool instead of the request threads, so a login
+ * storm can use at most these cores and the menu and order endpoints keep
+ * theirs. When the pool and its queue are full the caller gets 429 straight
+ * away rather than queueing behind a burst it can't get through.
+ */
+@Component
+public class PasswordHasher {
+
+	private static final Logger logger = LoggerFactory.getLogger(PasswordHasher.class);
+
+	@Autowired
+	private PasswordEncoder passwordEncoder;
+
+	// 0 = half the cores
+	@Value("${auth.hashing.threads:0}")
+	private int threads;
+
+	@Value("${auth.hashing.queue-size:64}")
+	private int queueSize;
+
+	@Value("${auth.hashing.wait-ms:10000}")
+	private long waitMs;
+
+	private ThreadPoolExecutor executor;
+
+	@PostConstruct
+	void start() {
+		int size = threads > 0 ? threads : Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+		AtomicInteger count = new AtomicInteger();
+		executor = new ThreadPoolExecutor(size, size, 0, TimeUnit.MILLISECONDS, new ArrayBlockingQueue<>(queueSize),
+				r -> {
+					Thread thread = new Thread(r, "password-hash-" + count.incrementAndGet());
+					thread.setDaemon(true);
+					return thread;
+				},
+				new ThreadPoolExecutor.AbortPolicy());
+	}
+
+	public String encode(String rawPassword) {
+		return run(() -> passwordEncoder.encode(rawPassword));
+	}
+
+	public boolean matches(String rawPassword, String encodedPassword) {
+		return run(() -> passwordEncoder.matches(rawPassword, encodedPassword));
+	}
+
+	// Stored with a lower cost than auth.bcrypt.strength
+	public boolean needsUpgrade(String encodedPassword) {
+		return passwordEncoder.upgradeEncoding(encodedPassword);
+	}
+
+	/**
+	 * Rehashes at the configured cost in the background and hands the new hash
+	 * to store. Skipped when the pool is busy; the next login tries again.
+	 */
+	public void upgradeLater(String rawPassword, Consumer<String> store) {
+		try {
+			executor.execute(() -> {
+				try {
+					store.accept(passwordEncoder.encode(rawPassword));
+				} catch (RuntimeException e) {
+					logger.warn("Password rehash failed: {}", e.getMessage());
+				}
+			});
+		} catch (RejectedExecutionException e) {
+			logger.debug("Password hashing pool busy, rehash skipped");
+		}
+	}
+
+	private <T> T run(Callable<T> task) {
+		Future<T> future;
+		try {
+			future = executor.submit(task);
+		} catch (RejectedExecutionException e) {
+			throw new AppException("Too many sign-ins right now, please try again in a moment", HttpStatus.TOO_MANY_REQUESTS);
+		}
+
+		try {
+			return future.get(waitMs, TimeUnit.MILLISECONDS);
+		} catch (TimeoutException e) {
+			future.cancel(true);
+			throw new AppException("Sign-in is taking too long, please try again", HttpStatus.SERVICE_UNAVAILABLE);
+		} catch (InterruptedException e) {
+			future.cancel(true);
+			Thread.currentThread().interrupt();
+			throw new AppException("Sign-in was interrupted, please try again", HttpStatus.SERVICE_UNAVAILABLE);
+		} catch (ExecutionException e) {
+			if (e.getCause() instanceof RuntimeException cause) {
+				throw cause;
+			}
+			throw new IllegalStateException(e.getCause());
+		}
+	}
+
+	@PreDestroy
+	public void shutdown() {
+		executor.shutdown();
+	}
+
+}
@@ -0,0 +1,119 @@
+package com.sr.app.services;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.function.Supplier;
+import java.util.zip.GZIPOutputStream;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import jakarta.annotation.PostConstruct;
+
+/**
+ * Serialized JSON, plain and gzipped, for the hottest unfiltered catalog reads.
+ * An entry is tagged with the version of the data it was built from; while the
+ * caller's version matches, the stored bytes are written as they are, with no
+ * mapping and no Jackson. A new version rebuilds the entry on the next read.
+ */
+@Component
+public class ResponseBytesCache {
+
+	private static final String GZIP = "gzip";
+
+	@Autowired
+	private ObjectMapper objectMapper;
+
+	@Value("${catalog.response-cache.max-entries:500}")
+	private long maxEntries;
+
+	private Cache<String, Entry> entries;
+
+	@PostConstruct
+	void init() {
+		entries = Caffeine.newBuilder().maximumSize(maxEntries).build();
+	}
+
+	/**
+	 * The response for key at version, from the cache or built from body. A null
+	 * version (not known right now) is served without caching.
+	 */
+	public ResponseEntity<byte[]> respond(String key, String version, String acceptEncoding, Supplier<?> body) {
+		Entry entry = version == null ? null : entries.getIfPresent(key);
+		if (entry == null || !entry.version.equals(version)) {
+			entry = build(version, body.get());
+			if (version != null) {
+				entries.put(key, entry);
+			}
+		}
+
+		boolean gzip = acceptsGzip(acceptEncoding);
+		byte[] bytes = gzip ? entry.gzip : entry.json;
+		ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+				.contentType(MediaType.APPLICATION_JSON)
+				.contentLength(bytes.length)
+				.header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+		if (gzip) {
+			response.header(HttpHeaders.CONTENT_ENCODING, GZIP);
+		}
+		return response.body(bytes);
+	}
+
+	private Entry build(String version, Object body) {
+		try {
+			byte[] json = objectMapper.writeValueAsBytes(body);
+			ByteArrayOutputStream compressed = new ByteArrayOutputStream(json.length / 4 + 64);
+			try (GZIPOutputStream out = new GZIPOutputStream(compressed)) {
+				out.write(json);
+			}
+			return new Entry(version, json, compressed.toByteArray());
+		} catch (JsonProcessingException e) {
+			throw new IllegalStateException("Could not serialize response", e);
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+
+	// "gzip" listed without q=0
+	static boolean acceptsGzip(String acceptEncoding) {
+		if (acceptEncoding == null) {
+			return false;
+		}
+		for (String part : acceptEncoding.split(",")) {
+			String[] params = part.trim().split(";");
+			if (!params[0].trim().equalsIgnoreCase(GZIP)) {
+				continue;
+			}
+			for (int i = 1; i < params.length; i++) {
+				String param = params[i].trim().replace(" ", "");
+				if (param.startsWith("q=") && isZero(param.substring(2))) {
+					return false;
+				}
+			}
+			return true;
+		}
+		return false;
+	}
+
+	private static boolean isZero(String quality) {
+		try {
+			return Double.parseDouble(quality) == 0;
+		} catch (NumberFormatException e) {
+			return true;
+		}
+	}
+
+	private record Entry(String version, byte[] json, byte[] gzip) {
+	}
+
+}
@@ -0,0 +1,203 @@
+package com.sr.app.services;
+
+import java.sql.Date;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.UUID;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.sr.app.constants.OrderStatusConstants;
+import com.sr.app.models.DailyOrderRollup;
+import com.sr.app.respos.DailyItemRollupRepo;
+import com.sr.app.respos.DailyOrderRollupRepo;
+
+/**
+ * Daily sales totals for the dashboard, per status and per item, so its
+ * queries read a row per day instead of scanning the order history.
+ *
+ * Only terminal statuses are rolled up: an order enters DELIVERED or CANCELLED
+ * once and never leaves, so adding each transition in the same transaction as
+ * the status UPDATE keeps the rows exact. Days are the day an order was placed,
+ * matching how the income figures have always been reported.
+ *
+ * Until a backfill from the orders has completed (recorded in Redis) each check
+ * runs one. After that, the periodic check compares the recent days against
+ * the orders and recomputes any day that drifted (a manual UPDATE, a restore).
+ * One node at a time runs either job.
+ */
+@Service
+public class SalesRollup {
+
+	private static final Logger logger = LoggerFactory.getLogger(SalesRollup.class);
+
+	public static final Set<String> STATUSES = Set.of(OrderStatusConstants.DELIVERED, OrderStatusConstants.CANCELLED);
+
+	private static final String LOCK_KEY = "sales:rollup:lock";
+
+	// Set once the backfill has covered the whole order history
+	private static final String BACKFILLED_KEY = "sales:rollup:backfilled";
+
+	private static final double REVENUE_TOLERANCE = 0.005;
+
+	private final String nodeId = UUID.randomUUID().toString();
+
+	@Autowired
+	private DailyOrderRollupRepo orderRollupRepo;
+
+	@Autowired
+	private DailyItemRollupRepo itemRollupRepo;
+
+	@Autowired
+	private StringRedisTemplate redisTemplate;
+
+	@Autowired
+	private TransactionTemplate transactionTemplate;
+
+	@Value("${dashboard.rollup.check-days:3}")
+	private int checkDays;
+
+	@Value("${dashboard.rollup.lock-ms:600000}")
+	private long lockMs;
+
+	/**
+	 * Adds the orders one OrderRepo.transitionStatus call moved. Must run in the
+	 * transaction that made the transition, so both commit or neither does.
+	 */
+	@Transactional(propagation = Propagation.MANDATORY)
+	public void recordTransition(String transitionId, String toStatus) {
+		if (!STATUSES.contains(toStatus)) {
+			return;
+		}
+		orderRollupRepo.addTransition(transitionId, STATUSES);
+		itemRollupRepo.addTransition(transitionId, STATUSES);
+	}
+
+	/**
+	 * Recomputes the days in [from, to) from the orders, in one transaction.
+	 */
+	public void rebuild(LocalDate from, LocalDate to) {
+		transactionTemplate.executeWithoutResult(status -> {
+			orderRollupRepo.deleteDays(from, to);
+			itemRollupRepo.deleteDays(from, to);
+			orderRollupRepo.insertDays(STATUSES, from.atStartOfDay(), to.atStartOfDay());
+			itemRollupRepo.insertDays(STATUSES, from.atStartOfDay(), to.atStartOfDay());
+		});
+	}
+
+	@EventListener(ApplicationReadyEvent.class)
+	public void onStartup() {
+		check();
+	}
+
+	@Scheduled(initialDelayString = "${dashboard.rollup.check-ms:3600000}", fixedDelayString = "${dashboard.rollup.check-ms:3600000}")
+	public void check() {
+		if (!lock()) {
+			return;
+		}
+		try {
+			if (!isBackfilled()) {
+				backfill();
+				redisTemplate.opsForValue().set(BACKFILLED_KEY, "1");
+			} else {
+				repairRecentDays();
+			}
+		} catch (RuntimeException e) {
+			logger.warn("Sales rollup check failed, retrying on the next run: {}", e.getMessage());
+		} finally {
+			unlock();
+		}
+	}
+
+	/**
+	 * Whether the rollups cover every order placed so far. Until then they may be
+	 * empty or cover only part of the history.
+	 */
+	public boolean isBackfilled() {
+		return Boolean.TRUE.equals(redisTemplate.hasKey(BACKFILLED_KEY));
+	}
+
+	// A month per transaction, so a long history never holds one huge transaction.
+	// Rebuilding a month is idempotent, so a backfill cut short is simply run again.
+	private void backfill() {
+		LocalDateTime first = orderRollupRepo.findFirstOrderAt();
+		if (first == null) {
+			return;
+		}
+		LocalDate end = LocalDate.now().plusDays(1);
+		LocalDate from = first.toLocalDate();
+		logger.info("Backfilling sales rollups from {}", from);
+		while (from.isBefore(end)) {
+			LocalDate to = from.withDayOfMonth(1).plusMonths(1);
+			rebuild(from, to.isAfter(end) ? end : to);
+			from = to;
+		}
+	}
+
+	private void repairRecentDays() {
+		LocalDate to = LocalDate.now().plusDays(1);
+		LocalDate from = to.minusDays(checkDays);
+
+		// day|status -> {count, revenue}
+		Map<String, double[]> expected = new HashMap<>();
+		for (Object[] row : orderRollupRepo.sumOrders(STATUSES, from.atStartOfDay(), to.atStartOfDay())) {
+			LocalDate day = row[0] instanceof Date date ? date.toLocalDate() : (LocalDate) row[0];
+			expected.put(day + "|" + row[1], new double[] { ((Number) row[2]).doubleValue(), ((Number) row[3]).doubleValue() });
+		}
+
+		Set<LocalDate> drifted = new TreeSet<>();
+		List<DailyOrderRollup> stored = orderRollupRepo.findByDayGreaterThanEqualAndDayLessThan(from, to);
+		for (DailyOrderRollup row : stored) {
+			double[] totals = expected.remove(row.getDay() + "|" + row.getStatus());
+			if (totals == null || totals[0] != row.getOrderCount()
+					|| Math.abs(totals[1] - row.getRevenue()) > REVENUE_TOLERANCE) {
+				drifted.add(row.getDay());
+			}
+		}
+		// Left over: days with orders but no rollup row
+		expected.keySet().forEach(key -> drifted.add(LocalDate.parse(key.substring(0, key.indexOf('|')))));
+
+		for (LocalDate day : drifted) {
+			logger.warn("Sales rollup for {} does not match the orders, recomputing it", day);
+			rebuild(day, day.plusDays(1));
+		}
+	}
+
+	// Without Redis there is no telling whether another node is at it, so skip this run
+	private boolean lock() {
+		try {
+			return Boolean.TRUE.equals(redisTemplate.opsForValue().setIfAbsent(LOCK_KEY, nodeId, Duration.ofMillis(lockMs)));
+		} catch (RuntimeException e) {
+			logger.warn("Could not take the sales rollup lock: {}", e.getMessage());
+			return false;
+		}
+	}
+
+	private void unlock() {
+		try {
+			if (nodeId.equals(redisTemplate.opsForValue().get(LOCK_KEY))) {
+				redisTemplate.delete(LOCK_KEY);
+			}
+		} catch (RuntimeException e) {
+			logger.warn("Could not release the sales rollup lock, it expires on its own: {}", e.getMessage());
+		}
+	}
+
+}
@@ -0,0 +1,139 @@
+package com.sr.app.services;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Set;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import com.sr.app.utils.BloomFilter;
+
+import io.jsonwebtoken.Claims;
+import jakarta.annotation.PostConstruct;
+
+/**
+ * Revoked token ids (jti) live in a Redis sorted set scored by the token's
+ * expiry, so the set only holds tokens that would otherwise still work. Each
+ * node keeps a Bloom filter of them: a miss, which is almost every request,
+ * clears the token without leaving the process. Only a hit is checked exactly
+ * in Redis.
+ *
+ * New revocations reach the other nodes' filters over pub/sub. A periodic sync
+ * drops expired entries and rebuilds the filter at the right size. If Redis
+ * can't answer the exact check, a filter hit is treated as revoked.
+ */
+@Component
+public class TokenRevocation implements MessageListener {
+
+	private static final Logger logger = LoggerFactory.getLogger(TokenRevocation.class);
+
+	private static final String KEY = "auth:revoked";
+
+	private static final String CHANNEL = "auth:revoked";
+
+	// Room to grow between syncs before the false positive rate climbs
+	private static final int MIN_CAPACITY = 1024;
+
+	@Autowired
+	private StringRedisTemplate redisTemplate;
+
+	@Autowired
+	private RedisMessageListenerContainer listenerContainer;
+
+	@Value("${auth.revocation.false-positive-rate:0.001}")
+	private double falsePositiveRate;
+
+	private volatile BloomFilter filter;
+
+	// guarded by this: revocations heard while a rebuild was reading Redis
+	private List<String> heardDuringRebuild;
+
+	@PostConstruct
+	void start() {
+		filter = new BloomFilter(MIN_CAPACITY, falsePositiveRate);
+		listenerContainer.addMessageListener(this, new ChannelTopic(CHANNEL));
+	}
+
+	/**
+	 * Revokes the token until it would have expired anyway. Tokens without a
+	 * jti (issued before revocation existed) can't be revoked.
+	 */
+	public void revoke(Claims claims) {
+		String jti = claims.getId();
+		if (jti == null) {
+			return;
+		}
+		Date expiration = claims.getExpiration();
+		long expiresAt = expiration != null ? expiration.getTime() : Long.MAX_VALUE;
+		redisTemplate.opsForZSet().add(KEY, jti, expiresAt);
+		remember(jti);
+		try {
+			redisTemplate.convertAndSend(CHANNEL, jti);
+		} catch (RuntimeException e) {
+			logger.warn("Could not broadcast token revocation, other nodes pick it up on their next sync: {}", e.getMessage());
+		}
+	}
+
+	public boolean isRevoked(String jti) {
+		if (jti == null || !filter.mightContain(jti)) {
+			return false;
+		}
+		try {
+			return redisTemplate.opsForZSet().score(KEY, jti) != null;
+		} catch (RuntimeException e) {
+			logger.warn("Could not confirm token revocation, rejecting the token: {}", e.getMessage());
+			return true;
+		}
+	}
+
+	@Override
+	public void onMessage(Message message, byte[] pattern) {
+		remember(new String(message.getBody()));
+	}
+
+	@Scheduled(fixedDelayString = "${auth.revocation.sync-ms:60000}")
+	public void sync() {
+		synchronized (this) {
+			heardDuringRebuild = new ArrayList<>();
+		}
+		try {
+			redisTemplate.opsForZSet().removeRangeByScore(KEY, Double.NEGATIVE_INFINITY, System.currentTimeMillis());
+			Set<String> revoked = redisTemplate.opsForZSet().range(KEY, 0, -1);
+			int count = revoked == null ? 0 : revoked.size();
+
+			BloomFilter next = new BloomFilter(Math.max(MIN_CAPACITY, count * 2L), falsePositiveRate);
+			if (revoked != null) {
+				revoked.forEach(next::add);
+			}
+			synchronized (this) {
+				heardDuringRebuild.forEach(next::add);
+				filter = next;
+			}
+		} catch (RuntimeException e) {
+			logger.warn("Could not sync revoked tokens, keeping the current filter: {}", e.getMessage());
+		} finally {
+			synchronized (this) {
+				heardDuringRebuild = null;
+			}
+		}
+	}
+
+	private synchronized void remember(String jti) {
+		filter.add(jti);
+		if (heardDuringRebuild != null) {
+			heardDuringRebuild.add(jti);
+		}
+	}
+
+}
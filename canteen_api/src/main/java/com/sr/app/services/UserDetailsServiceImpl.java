@@ -1,16 +1,22 @@
 package com.sr.app.services;
 
-import java.util.ArrayList;
+import java.time.Duration;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
 import com.sr.app.models.Users;
 import com.sr.app.respos.UserRepo;
 
+import io.jsonwebtoken.Claims;
+import jakarta.annotation.PostConstruct;
+
 
 @Service
 public class UserDetailsServiceImpl implements UserDetailsService {
@@ -18,16 +24,58 @@ public class UserDetailsServiceImpl implements UserDetailsService {
     @Autowired
     private UserRepo userRepository;
 
+    @Value("${auth.user-cache.ttl-ms:30000}")
+    private long userCacheTtlMs;
+
+    @Value("${auth.user-cache.max-size:10000}")
+    private long userCacheMaxSize;
+
+    // Short-lived, per node: covers whatever still needs the Users row
+    private Cache<String, Users> usersByEmail;
+
+    @PostConstruct
+    void init() {
+        usersByEmail = Caffeine.newBuilder()
+                .expireAfterWrite(Duration.ofMillis(userCacheTtlMs))
+                .maximumSize(userCacheMaxSize)
+                .build();
+    }
+
     @Override
     public UserDetails loadUserByUsername(String email) throws UsernameNotFoundException {
-        Users user = userRepository.findByEmail(email);
-        		
+        return new UserDetailsImpl(findUser(email));
+    }
+
+    public Users findUser(String email) {
+        Users user = usersByEmail.get(email, userRepository::findByEmail);
+
         if(user == null)
         {
-        	new UsernameNotFoundException("User not found: " + email);
+        	throw new UsernameNotFoundException("User not found: " + email);
         }
 
+        return user;
+    }
+
+    /**
+     * Principal straight from the userId / email / role claims AuthServiceImpl
+     * and the OAuth handler put in every token, no database read. Tokens
+     * without them fall back to the cached row.
+     */
+    public UserDetailsImpl fromClaims(Claims claims) {
+        String userId = claims.get("userId", String.class);
+        String email = claims.get("email", String.class);
+        String role = claims.get("role", String.class);
+
+        if (userId == null || email == null || role == null) {
+            return new UserDetailsImpl(findUser(claims.getSubject()));
+        }
+
+        Users user = new Users();
+        user.setUserId(userId);
+        user.setEmail(email);
+        user.setRole(role);
+        user.setName(claims.get("name", String.class));
         return new UserDetailsImpl(user);
     }
 }
-
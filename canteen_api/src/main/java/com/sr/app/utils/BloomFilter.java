@@ -0,0 +1,72 @@
+package com.sr.app.utils;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Fixed-size Bloom filter over strings. mightContain never misses an added
+ * value and is wrong the other way at about the rate it was sized for, as long
+ * as no more than the expected number of values are added. Adds and reads are
+ * safe from any thread.
+ */
+public final class BloomFilter {
+
+	private final AtomicLongArray bits;
+
+	private final long bitCount;
+
+	private final int hashCount;
+
+	public BloomFilter(long expectedValues, double falsePositiveRate) {
+		long n = Math.max(1, expectedValues);
+		long m = (long) Math.ceil(-n * Math.log(falsePositiveRate) / (Math.log(2) * Math.log(2)));
+		bitCount = Math.max(64, (m + 63) / 64 * 64);
+		hashCount = Math.max(1, (int) Math.round((double) bitCount / n * Math.log(2)));
+		bits = new AtomicLongArray((int) (bitCount / 64));
+	}
+
+	public void add(String value) {
+		long h1 = hash(value);
+		long h2 = fmix(h1 ^ 0x9E3779B97F4A7C15L) | 1;
+		for (int i = 0; i < hashCount; i++) {
+			long index = Long.remainderUnsigned(h1 + i * h2, bitCount);
+			int word = (int) (index >>> 6);
+			long mask = 1L << index;
+			long current;
+			do {
+				current = bits.get(word);
+			} while ((current & mask) == 0 && !bits.compareAndSet(word, current, current | mask));
+		}
+	}
+
+	public boolean mightContain(String value) {
+		long h1 = hash(value);
+		long h2 = fmix(h1 ^ 0x9E3779B97F4A7C15L) | 1;
+		for (int i = 0; i < hashCount; i++) {
+			long index = Long.remainderUnsigned(h1 + i * h2, bitCount);
+			if ((bits.get((int) (index >>> 6)) & (1L << index)) == 0) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	// 64-bit FNV-1a over the chars, then a murmur3 finalizer to spread the bits
+	private static long hash(String value) {
+		long h = 0xCBF29CE484222325L;
+		for (int i = 0; i < value.length(); i++) {
+			h ^= value.charAt(i);
+			h *= 0x100000001B3L;
+		}
+		return fmix(h);
+	}
+
+	private static long fmix(long h) {
+		h ^= h >>> 33;
+		h *= 0xFF51AFD7ED558CCDL;
+		h ^= h >>> 33;
+		h *= 0xC4CEB9FE1A85EC53L;
+		h ^= h >>> 33;
+		return h;
+	}
+
+}
@@ -1,27 +1,77 @@
 package com.sr.app.utils;
 
 
-import java.util.UUID;
-import java.util.concurrent.ThreadLocalRandom;
+import java.security.SecureRandom;
 
 
 import org.springframework.stereotype.Component;
 
 
+/**
+ * Primary keys for every table: a UUIDv7 (48-bit unix millis, 12-bit counter,
+ * 62 random bits) written as 26 Crockford base32 characters.
+ *
+ * Ids sort by creation time as plain strings, so new rows go in at the end of
+ * the clustered index rather than at random positions. The random part keeps
+ * nodes from colliding without any coordination.
+ */
 @Component
 public class IdGeneration {
-	
-	public static String generateRandomString() {
-	    String uuid = UUID.randomUUID().toString().replace("-", "");
-	    long timestamp = System.currentTimeMillis();
-	    return uuid + timestamp;
+
+	private static final char[] CROCKFORD = "0123456789ABCDEFGHJKMNPQRSTVWXYZ".toCharArray();
+
+	private static final int ID_LENGTH = 26;
+
+	private static final int MAX_COUNTER = 0xFFF;
+
+	private static final SecureRandom RANDOM = new SecureRandom();
+
+	// guarded by IdGeneration.class
+	private static long lastMillis;
+
+	private static int counter;
+
+	public static String newId() {
+		long random = RANDOM.nextLong();
+
+		long millis;
+		int sequence;
+		synchronized (IdGeneration.class) {
+			long now = System.currentTimeMillis();
+			if (now > lastMillis) {
+				lastMillis = now;
+				// Random start leaves room to count up while staying unpredictable
+				counter = (int) (random >>> 56) & 0x7F;
+			} else if (++counter > MAX_COUNTER) {
+				// Counter exhausted (or clock went back): borrow the next millisecond
+				lastMillis++;
+				counter = 0;
+			}
+			millis = lastMillis;
+			sequence = counter;
+		}
+
+		long hi = (millis << 16) | 0x7000L | sequence;
+		long lo = 0x8000000000000000L | (random & 0x3FFFFFFFFFFFFFFFL);
+		return encode(hi, lo);
 	}
-	
-	
-	public  static long generateUniqueLong() {
-        long timestamp = System.currentTimeMillis();
-        int randomPart = ThreadLocalRandom.current().nextInt(1000, 9999); // 4-digit random
-        return timestamp * 10000L + randomPart;
-    }
-
-}
\ No newline at end of file
+
+	// 128 bits as 26 base32 digits (the first one carries the top 3 bits)
+	static String encode(long hi, long lo) {
+		char[] out = new char[ID_LENGTH];
+		for (int i = 0; i < ID_LENGTH; i++) {
+			int shift = 125 - 5 * i;
+			long digit;
+			if (shift >= 64) {
+				digit = hi >>> (shift - 64);
+			} else if (shift > 59) {
+				digit = (lo >>> shift) | (hi << (64 - shift));
+			} else {
+				digit = lo >>> shift;
+			}
+			out[i] = CROCKFORD[(int) (digit & 31)];
+		}
+		return new String(out);
+	}
+
+}
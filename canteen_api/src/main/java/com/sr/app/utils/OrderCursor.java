@@ -0,0 +1,45 @@
+package com.sr.app.utils;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+
+import org.springframework.http.HttpStatus;
+
+import com.sr.app.exception.AppException;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+/**
+ * Position in an order listing sorted by (createdAt DESC, orderId DESC),
+ * handed to clients as an opaque string.
+ */
+@Data
+@AllArgsConstructor
+public class OrderCursor {
+
+	private LocalDateTime createdAt;
+
+	private String orderId;
+
+	public String encode() {
+		String raw = createdAt + "|" + orderId;
+		return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+	}
+
+	public static OrderCursor decode(String cursor) {
+		try {
+			String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+			int separator = raw.indexOf('|');
+			String orderId = raw.substring(separator + 1);
+			if (orderId.isEmpty()) {
+				throw new IllegalArgumentException("no order id");
+			}
+			return new OrderCursor(LocalDateTime.parse(raw.substring(0, separator)), orderId);
+		} catch (RuntimeException e) {
+			throw new AppException("Invalid cursor", HttpStatus.BAD_REQUEST);
+		}
+	}
+
+}
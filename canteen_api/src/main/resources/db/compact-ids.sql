@@ -0,0 +1,92 @@
+-- Compact id columns for the time-ordered ids from IdGeneration.newId().
+--
+-- New ids are 26 ASCII characters. Existing rows keep their ids (up to 45
+-- characters for the old uuid+millis format), so nothing referencing them
+-- (JWTs, payment receipts, URLs) breaks. Only the column type changes:
+-- ascii / ascii_bin stores one byte per character and compares with a
+-- byte-wise collation, so every primary key, secondary index entry and
+-- foreign key shrinks and sorts the way the ids were generated. Every column
+-- holding one of these ids is converted, so joins never compare mixed
+-- collations.
+--
+-- Run once during a quiet window, after deploying the new generator.
+-- Each ALTER rebuilds its table.
+
+-- 1. Check nothing is longer than the new width (expect <= 45)
+SELECT 'users' AS tbl, MAX(CHAR_LENGTH(user_id)) AS max_len FROM users
+UNION ALL SELECT 'item_category', MAX(CHAR_LENGTH(category_id)) FROM item_category
+UNION ALL SELECT 'menu_items', MAX(CHAR_LENGTH(item_id)) FROM menu_items
+UNION ALL SELECT 'cart', MAX(CHAR_LENGTH(cart_id)) FROM cart
+UNION ALL SELECT 'delivery_address', MAX(CHAR_LENGTH(id)) FROM delivery_address
+UNION ALL SELECT 'orders', MAX(CHAR_LENGTH(order_id)) FROM orders
+UNION ALL SELECT 'order_item', MAX(CHAR_LENGTH(order_item_id)) FROM order_item
+UNION ALL SELECT 'order_outbox', MAX(CHAR_LENGTH(id)) FROM order_outbox
+UNION ALL SELECT 'menu_change_log', MAX(CHAR_LENGTH(entity_id)) FROM menu_change_log
+UNION ALL SELECT 'daily_item_rollup', MAX(CHAR_LENGTH(item_id)) FROM daily_item_rollup;
+
+-- 2. Convert keys and the columns that reference them. Referenced and
+--    referencing columns must end up with the same charset, so foreign key
+--    checks are off until all of them are converted.
+SET FOREIGN_KEY_CHECKS = 0;
+
+ALTER TABLE users
+    MODIFY user_id VARCHAR(48) CHARACTER SET ascii COLLATE ascii_bin NOT NULL;
+
+ALTER TABLE item_category
+    MODIFY category_id VARCHAR(48) CHARACTER SET ascii COLLATE ascii_bin NOT NULL;
+
+ALTER TABLE menu_items
+    MODIFY item_id VARCHAR(48) CHARACTER SET ascii COLLATE ascii_bin NOT NULL,
+    MODIFY category_id VARCHAR(48) CHARACTER SET ascii COLLATE ascii_bin NULL;
+
+ALTER TABLE cart
+    MODIFY cart_id VARCHAR(48) CHARACTER SET ascii COLLATE ascii_bin NOT NULL,
+    MODIFY user_user_id VARCHAR(48) CHARACTER SET ascii COLLATE ascii_bin NULL,
+    MODIFY menu_item_item_id VARCHAR(48) CHARACTER SET ascii COLLATE ascii_bin NULL;
+
+ALTER TABLE delivery_address
+    MODIFY id VARCHAR(48) CHARACTER SET ascii COLLATE ascii_bin NOT NULL;
+
+ALTER TABLE orders
+    MODIFY order_id VARCHAR(48) CHARACTER SET ascii COLLATE ascii_bin NOT NULL,
+    MODIFY user_id VARCHAR(48) CHARACTER SET ascii COLLATE ascii_bin NOT NULL,
+    MODIFY delivery_address_id VARCHAR(48) CHARACTER SET ascii COLLATE ascii_bin NULL,
+    MODIFY last_transition_id VARCHAR(48) CHARACTER SET ascii COLLATE ascii_bin NULL;
+
+ALTER TABLE order_item
+    MODIFY order_item_id VARCHAR(48) CHARACTER SET ascii COLLATE ascii_bin NOT NULL,
+    MODIFY item_id VARCHAR(48) CHARACTER SET ascii COLLATE ascii_bin NOT NULL,
+    MODIFY order_id VARCHAR(48) CHARACTER SET ascii COLLATE ascii_bin NULL;
+
+ALTER TABLE order_outbox
+    MODIFY id VARCHAR(48) CHARACTER SET ascii COLLATE ascii_bin NOT NULL,
+    MODIFY order_id VARCHAR(48) CHARACTER SET ascii COLLATE ascii_bin NOT NULL,
+    MODIFY user_id VARCHAR(48) CHARACTER SET ascii COLLATE ascii_bin NOT NULL;
+
+-- Item and category ids, matched against menu_items / item_category
+ALTER TABLE menu_change_log
+    MODIFY entity_id VARCHAR(48) CHARACTER SET ascii COLLATE ascii_bin NOT NULL;
+
+-- Part of the primary key (sales_day, status, item_id)
+ALTER TABLE daily_item_rollup
+    MODIFY item_id VARCHAR(48) CHARACTER SET ascii COLLATE ascii_bin NOT NULL;
+
+SET FOREIGN_KEY_CHECKS = 1;
+
+-- 3. Sanity check: every foreign key still resolves (expect 0 rows each)
+SELECT c.cart_id FROM cart c LEFT JOIN users u ON u.user_id = c.user_user_id WHERE u.user_id IS NULL;
+SELECT i.order_item_id FROM order_item i LEFT JOIN orders o ON o.order_id = i.order_id WHERE o.order_id IS NULL;
+SELECT b.id FROM order_outbox b LEFT JOIN orders o ON o.order_id = b.order_id WHERE o.order_id IS NULL;
+
+-- 4. Every id column now has the same charset and collation (expect one row: ascii, ascii_bin)
+SELECT DISTINCT character_set_name, collation_name FROM information_schema.columns
+WHERE table_schema = DATABASE()
+  AND (table_name, column_name) IN (
+      ('users', 'user_id'), ('item_category', 'category_id'),
+      ('menu_items', 'item_id'), ('menu_items', 'category_id'),
+      ('cart', 'cart_id'), ('cart', 'user_user_id'), ('cart', 'menu_item_item_id'),
+      ('delivery_address', 'id'),
+      ('orders', 'order_id'), ('orders', 'user_id'), ('orders', 'delivery_address_id'), ('orders', 'last_transition_id'),
+      ('order_item', 'order_item_id'), ('order_item', 'item_id'), ('order_item', 'order_id'),
+      ('order_outbox', 'id'), ('order_outbox', 'order_id'), ('order_outbox', 'user_id'),
+      ('menu_change_log', 'entity_id'), ('daily_item_rollup', 'item_id'));
@@ -0,0 +1,75 @@
+package com.sr.app.config;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import org.springframework.data.redis.cache.CacheStatistics;
+import org.springframework.data.redis.cache.CacheStatisticsCollector;
+import org.springframework.data.redis.cache.RedisCacheWriter;
+
+/**
+ * Stands in for Redis behind a RedisCacheManager: keeps the serialized bytes,
+ * so values still go through the real cache value serializer.
+ */
+class InMemoryRedisCacheWriter implements RedisCacheWriter {
+
+	final ConcurrentMap<String, byte[]> entries = new ConcurrentHashMap<>();
+
+	private static String key(byte[] key) {
+		return new String(key, StandardCharsets.UTF_8);
+	}
+
+	@Override
+	public byte[] get(String name, byte[] key) {
+		return entries.get(key(key));
+	}
+
+	@Override
+	public CompletableFuture<byte[]> retrieve(String name, byte[] key, Duration ttl) {
+		return CompletableFuture.completedFuture(get(name, key));
+	}
+
+	@Override
+	public void put(String name, byte[] key, byte[] value, Duration ttl) {
+		entries.put(key(key), value);
+	}
+
+	@Override
+	public CompletableFuture<Void> store(String name, byte[] key, byte[] value, Duration ttl) {
+		put(name, key, value, ttl);
+		return CompletableFuture.completedFuture(null);
+	}
+
+	@Override
+	public byte[] putIfAbsent(String name, byte[] key, byte[] value, Duration ttl) {
+		return entries.putIfAbsent(key(key), value);
+	}
+
+	@Override
+	public void remove(String name, byte[] key) {
+		entries.remove(key(key));
+	}
+
+	@Override
+	public void clean(String name, byte[] pattern) {
+		entries.clear();
+	}
+
+	@Override
+	public void clearStatistics(String name) {
+	}
+
+	@Override
+	public RedisCacheWriter withStatisticsCollector(CacheStatisticsCollector cacheStatisticsCollector) {
+		return this;
+	}
+
+	@Override
+	public CacheStatistics getCacheStatistics(String cacheName) {
+		throw new UnsupportedOperationException();
+	}
+
+}
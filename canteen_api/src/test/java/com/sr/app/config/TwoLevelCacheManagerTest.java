@@ -0,0 +1,95 @@
+package com.sr.app.config;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Answers;
+import org.mockito.Mockito;
+import org.springframework.cache.Cache;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.sr.app.dto.CategoryDto;
+import com.sr.app.response.PageResponse;
+
+class TwoLevelCacheManagerTest {
+
+	private InMemoryRedisCacheWriter redis;
+
+	private TwoLevelCacheManager manager;
+
+	@BeforeEach
+	void setUp() {
+		StringRedisTemplate redisTemplate = Mockito.mock(StringRedisTemplate.class, Answers.RETURNS_DEEP_STUBS);
+		CacheGenerations generations = new CacheGenerations();
+		ReflectionTestUtils.setField(generations, "redisTemplate", redisTemplate);
+
+		CacheProperties properties = new CacheProperties();
+		redis = new InMemoryRedisCacheWriter();
+		manager = new TwoLevelCacheManager(RedisConfig.redisCacheManager(redis, properties, generations), properties,
+				redisTemplate, generations);
+	}
+
+	@Test
+	void pageComesBackFromRedisAsThePageThatWasStored() {
+		PageResponse<CategoryDto> page = categoriesPage();
+
+		TwoLevelCache cache = (TwoLevelCache) manager.getCache("categories");
+		cache.put("q=|page=0|limit=10", page);
+		// Only L2 left, as on another node or after the L1 entry expired
+		cache.clearLocal();
+
+		Object cached = cache.get("q=|page=0|limit=10").get();
+		assertInstanceOf(PageResponse.class, cached);
+		assertEquals(page, cached);
+		assertInstanceOf(CategoryDto.class, ((PageResponse<?>) cached).getContent().get(0));
+	}
+
+	@Test
+	void loaderIsNotCalledForAValueInRedis() {
+		PageResponse<CategoryDto> page = categoriesPage();
+		Cache cache = manager.getCache("categories");
+		cache.put("k", page);
+		((TwoLevelCache) cache).clearLocal();
+
+		PageResponse<?> cached = cache.get("k", () -> {
+			throw new AssertionError("loaded although Redis had the value");
+		});
+		assertEquals(page, cached);
+	}
+
+	@Test
+	void unreadableEntryIsEvictedAndTreatedAsAMiss() {
+		Cache cache = manager.getCache("categories");
+		cache.put("k", categoriesPage());
+		((TwoLevelCache) cache).clearLocal();
+		// What the serializer without type information used to write
+		redis.entries.replaceAll((key, value) -> "{\"value\":{},\"computeMs\":0,\"expiresAt\":0}".getBytes(StandardCharsets.UTF_8));
+
+		assertNull(cache.get("k"));
+		assertEquals(0, redis.entries.size());
+	}
+
+	// Content as Spring Data hands it out: an unmodifiable list
+	private static PageResponse<CategoryDto> categoriesPage() {
+		CategoryDto dto = new CategoryDto();
+		dto.setCategoryId("01JB0000000000000000000000");
+		dto.setCategoryName("Snacks");
+		dto.setSlugName("snacks");
+		dto.setCreatedAt(LocalDateTime.of(2025, 1, 31, 12, 30));
+
+		PageImpl<CategoryDto> data = new PageImpl<>(List.of(dto), PageRequest.of(0, 10), 1);
+		return new PageResponse<>(data.getContent(), data.getNumber(), data.getSize(), data.getTotalElements(),
+				data.getTotalPages(), data.isLast());
+	}
+
+}
@@ -0,0 +1,83 @@
+package com.sr.app.config;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Duration;
+import java.util.concurrent.Callable;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+import org.mockito.Answers;
+import org.mockito.Mockito;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+
+class TwoLevelCacheRefreshTest {
+
+	private static TwoLevelCache cache(double beta) {
+		StringRedisTemplate redisTemplate = Mockito.mock(StringRedisTemplate.class, Answers.RETURNS_DEEP_STUBS);
+		CacheGenerations generations = new CacheGenerations();
+		ReflectionTestUtils.setField(generations, "redisTemplate", redisTemplate);
+
+		CacheProperties properties = new CacheProperties();
+		properties.getDefaults().setRedisTtl(Duration.ofSeconds(5));
+		properties.getDefaults().setEarlyRefreshBeta(beta);
+		TwoLevelCacheManager manager = new TwoLevelCacheManager(
+				RedisConfig.redisCacheManager(new InMemoryRedisCacheWriter(), properties, generations), properties,
+				redisTemplate, generations);
+		return (TwoLevelCache) manager.getCache("test");
+	}
+
+	private static Callable<String> slowLoader(AtomicInteger calls) {
+		return () -> {
+			Thread.sleep(20);
+			return "v" + calls.incrementAndGet();
+		};
+	}
+
+	@Test
+	void hotKeyIsRefreshedInTheBackgroundBeforeItExpires() throws Exception {
+		// A beta this large puts every read inside the refresh window
+		TwoLevelCache cache = cache(1_000_000);
+		AtomicInteger calls = new AtomicInteger();
+		long expiresAt = System.currentTimeMillis() + 5000;
+
+		assertEquals("v1", cache.get("k", slowLoader(calls)));
+		// The read that triggers the refresh still gets the current value
+		assertEquals("v1", cache.get("k", slowLoader(calls)));
+
+		long deadline = System.currentTimeMillis() + 2000;
+		while (!"v2".equals(cache.get("k").get()) && System.currentTimeMillis() < deadline) {
+			Thread.sleep(5);
+		}
+		assertEquals("v2", cache.get("k").get());
+		assertTrue(System.currentTimeMillis() < expiresAt, "refreshed only after the value expired");
+	}
+
+	@Test
+	void noRefreshWhenEarlyRefreshIsOff() throws Exception {
+		TwoLevelCache cache = cache(0);
+		AtomicInteger calls = new AtomicInteger();
+
+		cache.get("k", slowLoader(calls));
+		for (int i = 0; i < 10; i++) {
+			assertEquals("v1", cache.get("k", slowLoader(calls)));
+		}
+		Thread.sleep(100);
+		assertEquals(1, calls.get());
+	}
+
+	@Test
+	void localCopyNeverOutlivesTheRedisOne() {
+		TwoLevelCacheManager.LocalExpiry expiry = new TwoLevelCacheManager.LocalExpiry(Duration.ofSeconds(30));
+
+		long soon = expiry.expireAfterCreate("k", new CachedValue("v", 0, System.currentTimeMillis() + 1000), 0);
+		assertTrue(soon <= TimeUnit.SECONDS.toNanos(1));
+
+		long later = expiry.expireAfterCreate("k", new CachedValue("v", 0, System.currentTimeMillis() + 600_000), 0);
+		assertEquals(TimeUnit.SECONDS.toNanos(30), later);
+	}
+
+}
@@ -0,0 +1,124 @@
+package com.sr.app.serviceImpl;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.sr.app.exception.AppException;
+import com.sr.app.models.Users;
+import com.sr.app.request.UserSigninRequest;
+import com.sr.app.respos.UserRepo;
+import com.sr.app.services.JwtService;
+import com.sr.app.services.LoginThrottle;
+import com.sr.app.services.PasswordHasher;
+
+class AuthServiceImplTest {
+
+	private static final String IP = "10.0.0.1";
+
+	private UserRepo userRepo;
+
+	private PasswordHasher passwordHasher;
+
+	private LoginThrottle loginThrottle;
+
+	private AuthServiceImpl authService;
+
+	@BeforeEach
+	void setUp() {
+		userRepo = mock(UserRepo.class);
+		passwordHasher = mock(PasswordHasher.class);
+		loginThrottle = mock(LoginThrottle.class);
+		JwtService jwtService = mock(JwtService.class);
+		when(jwtService.generateToken(anyString(), anyMap())).thenReturn("token");
+
+		Users user = new Users();
+		user.setUserId("u1");
+		user.setName("Student");
+		user.setEmail("student@college.edu");
+		user.setPassword("$2a$10$hash");
+		when(userRepo.findByEmail("student@college.edu")).thenReturn(user);
+
+		authService = new AuthServiceImpl();
+		ReflectionTestUtils.setField(authService, "userRepo", userRepo);
+		ReflectionTestUtils.setField(authService, "passwordHasher", passwordHasher);
+		ReflectionTestUtils.setField(authService, "loginThrottle", loginThrottle);
+		ReflectionTestUtils.setField(authService, "jwtService", jwtService);
+	}
+
+	@Test
+	void attemptTurnedAwayByABusyHasherIsGivenBack() {
+		AppException busy = new AppException("Too many sign-ins right now, please try again in a moment", HttpStatus.TOO_MANY_REQUESTS);
+		when(passwordHasher.matches(anyString(), anyString())).thenThrow(busy);
+
+		AppException thrown = assertThrows(AppException.class, () -> authService.userSignIn(request("secret"), IP));
+
+		assertSame(busy, thrown);
+		verify(loginThrottle).acquire("student@college.edu", IP);
+		verify(loginThrottle).release("student@college.edu", IP);
+		verify(loginThrottle, never()).recordSuccess(anyString(), any());
+	}
+
+	@Test
+	void attemptThatTimedOutInTheHasherIsGivenBack() {
+		when(passwordHasher.matches(anyString(), anyString()))
+				.thenThrow(new AppException("Sign-in is taking too long, please try again", HttpStatus.SERVICE_UNAVAILABLE));
+
+		AppException thrown = assertThrows(AppException.class, () -> authService.userSignIn(request("secret"), IP));
+
+		assertEquals(HttpStatus.SERVICE_UNAVAILABLE, thrown.getHttpStatus());
+		verify(loginThrottle).release("student@college.edu", IP);
+	}
+
+	@Test
+	void wrongPasswordKeepsTheAttemptCounted() {
+		when(passwordHasher.matches("wrong", "$2a$10$hash")).thenReturn(false);
+
+		AppException thrown = assertThrows(AppException.class, () -> authService.userSignIn(request("wrong"), IP));
+
+		assertEquals(HttpStatus.BAD_REQUEST, thrown.getHttpStatus());
+		verify(loginThrottle, never()).release(anyString(), any());
+		verify(loginThrottle, never()).releaseNetwork(any());
+	}
+
+	@Test
+	void unknownEmailIsGivenBackToTheNetwork() {
+		UserSigninRequest request = request("secret");
+		request.setEmail("nobody@college.edu");
+
+		assertThrows(AppException.class, () -> authService.userSignIn(request, IP));
+
+		verify(loginThrottle).releaseNetwork(IP);
+		verify(passwordHasher, never()).matches(anyString(), anyString());
+	}
+
+	@Test
+	void successClearsTheAttempt() {
+		when(passwordHasher.matches("secret", "$2a$10$hash")).thenReturn(true);
+
+		assertEquals("token", authService.userSignIn(request("secret"), IP).getToken());
+
+		verify(loginThrottle).recordSuccess("student@college.edu", IP);
+		verify(loginThrottle, never()).release(anyString(), any());
+	}
+
+	private static UserSigninRequest request(String password) {
+		UserSigninRequest request = new UserSigninRequest();
+		request.setEmail("student@college.edu");
+		request.setPassword(password);
+		return request;
+	}
+
+}
@@ -0,0 +1,59 @@
+package com.sr.app.serviceImpl;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.sr.app.dto.MenuItemDto;
+import com.sr.app.services.MenuCatalog;
+
+class ItemServiceImplTest {
+
+	private MenuCatalog.Snapshot snapshot;
+
+	private ItemServiceImpl itemService;
+
+	@BeforeEach
+	void setUp() {
+		MenuCatalog menuCatalog = mock(MenuCatalog.class);
+		snapshot = mock(MenuCatalog.Snapshot.class);
+		when(menuCatalog.current()).thenReturn(snapshot);
+
+		itemService = new ItemServiceImpl();
+		ReflectionTestUtils.setField(itemService, "menuCatalog", menuCatalog);
+	}
+
+	@Test
+	void suggestionsAreCappedAtTwenty() {
+		when(snapshot.suggest("dosa", 20)).thenReturn(items(20));
+
+		assertEquals(20, itemService.suggest("dosa", 500).size());
+	}
+
+	@Test
+	void suggestionLimitIsAtLeastOne() {
+		when(snapshot.suggest("dosa", 1)).thenReturn(items(1));
+
+		assertEquals(1, itemService.suggest("dosa", 0).size());
+		assertEquals(1, itemService.suggest("dosa", -5).size());
+	}
+
+	private static List<MenuItemDto> items(int count) {
+		List<MenuItemDto> items = new ArrayList<>();
+		for (int i = 0; i < count; i++) {
+			MenuItemDto item = new MenuItemDto();
+			item.setItemId("i" + i);
+			item.setItemName("Dosa " + i);
+			items.add(item);
+		}
+		return items;
+	}
+
+}
@@ -0,0 +1,92 @@
+package com.sr.app.services;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.RedisConnectionFailureException;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ValueOperations;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+class IdempotencyStoreTest {
+
+	private StringRedisTemplate redisTemplate;
+
+	private ValueOperations<String, String> values;
+
+	private IdempotencyStore store;
+
+	@BeforeEach
+	@SuppressWarnings("unchecked")
+	void setUp() {
+		redisTemplate = mock(StringRedisTemplate.class);
+		values = mock(ValueOperations.class);
+		when(redisTemplate.opsForValue()).thenReturn(values);
+		when(values.setIfAbsent(anyString(), anyString(), any(Duration.class))).thenReturn(true);
+
+		store = new IdempotencyStore();
+		ReflectionTestUtils.setField(store, "redisTemplate", redisTemplate);
+		ReflectionTestUtils.setField(store, "objectMapper", new ObjectMapper());
+		ReflectionTestUtils.setField(store, "ttlMs", 60_000L);
+		ReflectionTestUtils.setField(store, "leaseMs", 30_000L);
+		ReflectionTestUtils.setField(store, "waitMs", 1_000L);
+	}
+
+	@Test
+	void responseIsReturnedWhenOnlyStoringItFails() {
+		doThrow(new RedisConnectionFailureException("down")).when(values)
+				.set(eq("idem:orders:u1:k1"), anyString(), any(Duration.class));
+		AtomicInteger runs = new AtomicInteger();
+
+		Map<?, ?> response = store.execute("orders:u1", "k1", Map.of("item", "tea"), Map.class,
+				() -> Map.of("orderId", "o" + runs.incrementAndGet()));
+
+		assertEquals("o1", response.get("orderId"));
+		assertEquals(1, runs.get());
+		// The in-progress marker stays so a retry can't run the action again
+		verify(redisTemplate, never()).delete(anyString());
+	}
+
+	@Test
+	void failedActionReleasesTheKeyAndRethrows() {
+		IllegalStateException failure = new IllegalStateException("gateway down");
+
+		IllegalStateException thrown = assertThrows(IllegalStateException.class,
+				() -> store.execute("orders:u1", "k1", Map.of("item", "tea"), Map.class, () -> {
+					throw failure;
+				}));
+
+		assertEquals(failure, thrown);
+		verify(redisTemplate).delete("idem:orders:u1:k1");
+	}
+
+	@Test
+	void storedResponseIsReplayedWithoutRunningTheAction() throws Exception {
+		String fingerprint = (String) ReflectionTestUtils.invokeMethod(store, "fingerprint", Map.of("item", "tea"));
+		when(values.setIfAbsent(anyString(), anyString(), any(Duration.class))).thenReturn(false);
+		when(values.get("idem:orders:u1:k1")).thenReturn("D|" + fingerprint + "|{\"orderId\":\"o1\"}");
+
+		Map<?, ?> response = store.execute("orders:u1", "k1", Map.of("item", "tea"), Map.class, () -> {
+			throw new AssertionError("ran twice");
+		});
+
+		assertEquals("o1", response.get("orderId"));
+	}
+
+}
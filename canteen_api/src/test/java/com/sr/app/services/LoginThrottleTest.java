@@ -0,0 +1,116 @@
+package com.sr.app.services;
+
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.data.redis.RedisConnectionFailureException;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ValueOperations;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.http.HttpStatus;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.sr.app.exception.AppException;
+
+class LoginThrottleTest {
+
+	private StringRedisTemplate redisTemplate;
+
+	private LoginThrottle throttle;
+
+	@BeforeEach
+	void setUp() {
+		redisTemplate = mock(StringRedisTemplate.class);
+
+		throttle = new LoginThrottle();
+		ReflectionTestUtils.setField(throttle, "redisTemplate", redisTemplate);
+		ReflectionTestUtils.setField(throttle, "emailMaxFailures", 5L);
+		ReflectionTestUtils.setField(throttle, "emailWindowMs", 900_000L);
+		ReflectionTestUtils.setField(throttle, "ipMaxFailures", 200L);
+		ReflectionTestUtils.setField(throttle, "ipWindowMs", 300_000L);
+	}
+
+	@Test
+	@SuppressWarnings("unchecked")
+	void acquireCountsTheEmailAndTheIpInOneScript() {
+		when(redisTemplate.execute(any(RedisScript.class), anyList(), any(Object[].class))).thenReturn(0L);
+
+		throttle.acquire(" Student@College.edu ", "10.0.0.1");
+
+		ArgumentCaptor<List<String>> keys = ArgumentCaptor.forClass(List.class);
+		ArgumentCaptor<Object[]> args = ArgumentCaptor.forClass(Object[].class);
+		verify(redisTemplate).execute(any(RedisScript.class), keys.capture(), args.capture());
+		assertEquals(List.of("auth:failures:email:student@college.edu", "auth:failures:ip:10.0.0.1"), keys.getValue());
+		assertEquals(List.of("5", "900000", "200", "300000"), List.of(args.getValue()));
+	}
+
+	@Test
+	@SuppressWarnings("unchecked")
+	void refusalNamesTheKeyThatRanOut() {
+		when(redisTemplate.execute(any(RedisScript.class), anyList(), any(Object[].class))).thenReturn(1L, 2L);
+
+		AppException account = assertThrows(AppException.class, () -> throttle.acquire("a@b.c", "10.0.0.1"));
+		AppException network = assertThrows(AppException.class, () -> throttle.acquire("a@b.c", "10.0.0.1"));
+
+		assertEquals(HttpStatus.TOO_MANY_REQUESTS, account.getHttpStatus());
+		assertEquals("Too many failed sign-ins for this account, please try again later", account.getMessage());
+		assertEquals(HttpStatus.TOO_MANY_REQUESTS, network.getHttpStatus());
+		assertEquals("Too many failed sign-ins from this network, please try again later", network.getMessage());
+	}
+
+	@Test
+	@SuppressWarnings("unchecked")
+	void attemptsAreAllowedWhenRedisIsDown() {
+		when(redisTemplate.execute(any(RedisScript.class), anyList(), any(Object[].class)))
+				.thenThrow(new RedisConnectionFailureException("down"));
+
+		assertDoesNotThrow(() -> throttle.acquire("a@b.c", "10.0.0.1"));
+		assertDoesNotThrow(() -> throttle.release("a@b.c", "10.0.0.1"));
+	}
+
+	@Test
+	@SuppressWarnings("unchecked")
+	void releaseGivesBackTheEmailAndTheIp() {
+		throttle.release("A@B.c", "10.0.0.1");
+
+		verify(redisTemplate).execute(any(RedisScript.class), eq(List.of("auth:failures:email:a@b.c")));
+		verify(redisTemplate).execute(any(RedisScript.class), eq(List.of("auth:failures:ip:10.0.0.1")));
+	}
+
+	@Test
+	@SuppressWarnings("unchecked")
+	void successClearsTheEmailAndGivesBackTheIp() {
+		throttle.recordSuccess("a@b.c", "10.0.0.1");
+
+		verify(redisTemplate).delete("auth:failures:email:a@b.c");
+		verify(redisTemplate).execute(any(RedisScript.class), eq(List.of("auth:failures:ip:10.0.0.1")));
+		verify(redisTemplate, never()).execute(any(RedisScript.class), eq(List.of("auth:failures:email:a@b.c")));
+	}
+
+	@Test
+	@SuppressWarnings("unchecked")
+	void signupIsRefusedOnlyFromANetworkOutOfAttempts() {
+		ValueOperations<String, String> values = mock(ValueOperations.class);
+		when(redisTemplate.opsForValue()).thenReturn(values);
+		when(values.get("auth:failures:ip:10.0.0.1")).thenReturn("200");
+		when(values.get("auth:failures:ip:10.0.0.2")).thenReturn("199");
+
+		AppException e = assertThrows(AppException.class, () -> throttle.checkNetwork("10.0.0.1"));
+		assertEquals(HttpStatus.TOO_MANY_REQUESTS, e.getHttpStatus());
+		assertDoesNotThrow(() -> throttle.checkNetwork("10.0.0.2"));
+	}
+
+}
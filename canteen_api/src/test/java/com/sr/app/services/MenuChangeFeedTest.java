@@ -0,0 +1,82 @@
+package com.sr.app.services;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Pageable;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.sr.app.response.MenuChangesResponse;
+import com.sr.app.respos.CategoryRepo;
+import com.sr.app.respos.MenuChangeLogRepo;
+import com.sr.app.respos.MenuItemRespo;
+
+class MenuChangeFeedTest {
+
+	private MenuChangeLogRepo changeLogRepo;
+
+	private MenuItemRespo itemRespo;
+
+	private MenuChangeFeed feed;
+
+	@BeforeEach
+	void setUp() {
+		changeLogRepo = mock(MenuChangeLogRepo.class);
+		itemRespo = mock(MenuItemRespo.class);
+
+		feed = new MenuChangeFeed();
+		ReflectionTestUtils.setField(feed, "changeLogRepo", changeLogRepo);
+		ReflectionTestUtils.setField(feed, "itemRespo", itemRespo);
+		ReflectionTestUtils.setField(feed, "categoryRepo", mock(CategoryRepo.class));
+		ReflectionTestUtils.setField(feed, "maxChanges", 500);
+		ReflectionTestUtils.setField(feed, "gapGraceMs", 5000L);
+		ReflectionTestUtils.setField(feed, "retentionDays", 7L);
+	}
+
+	@Test
+	void pruneKeepsTheNewestRow() {
+		when(changeLogRepo.findMaxVersion()).thenReturn(42L);
+
+		feed.prune();
+
+		verify(changeLogRepo).deleteChangedBefore(any(LocalDateTime.class), eq(42L));
+	}
+
+	@Test
+	void pruneOfAnEmptyLogDeletesNothing() {
+		when(changeLogRepo.findMaxVersion()).thenReturn(null);
+
+		feed.prune();
+
+		verify(changeLogRepo, never()).deleteChangedBefore(any(LocalDateTime.class), anyLong());
+	}
+
+	@Test
+	void clientAtTheLatestVersionGetsNoChangesAfterAQuietWeek() {
+		// Only the kept newest row is left
+		when(changeLogRepo.findMinVersion()).thenReturn(42L);
+		when(changeLogRepo.findMaxVersion()).thenReturn(42L);
+		when(changeLogRepo.findByVersionGreaterThanOrderByVersion(eq(42L), any(Pageable.class))).thenReturn(List.of());
+
+		MenuChangesResponse response = feed.changesSince(42L);
+
+		assertFalse(response.isFull());
+		assertEquals(42L, response.getVersion());
+		assertTrue(response.getItems().isEmpty());
+		verify(itemRespo, never()).findAllWithCategory();
+	}
+
+}
@@ -0,0 +1,139 @@
+package com.sr.app.services;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import com.sr.app.dto.MenuItemDto;
+
+class MenuSearchIndexTest {
+
+	@Test
+	void editDistanceCountsSingleEdits() {
+		assertEquals(0, MenuSearchIndex.editDistance("paneer", "paneer", 2));
+		assertEquals(1, MenuSearchIndex.editDistance("panner", "paneer", 2));
+		assertEquals(1, MenuSearchIndex.editDistance("paner", "paneer", 2));
+		assertEquals(1, MenuSearchIndex.editDistance("paneeer", "paneer", 2));
+		assertEquals(3, MenuSearchIndex.editDistance("", "tea", 3));
+		assertEquals(3, MenuSearchIndex.editDistance("tea", "", 3));
+	}
+
+	@Test
+	void editDistanceCountsAnAdjacentSwapAsOneEdit() {
+		assertEquals(1, MenuSearchIndex.editDistance("ab", "ba", 2));
+		assertEquals(1, MenuSearchIndex.editDistance("biryani", "biryain", 2));
+		assertEquals(1, MenuSearchIndex.editDistance("smaosa", "samosa", 2));
+		assertEquals(2, MenuSearchIndex.editDistance("smaoas", "samosa", 2));
+		// Optimal string alignment: a swapped pair is not edited again
+		assertEquals(3, MenuSearchIndex.editDistance("ca", "abc", 3));
+	}
+
+	@Test
+	void editDistanceStopsPastTheMaximum() {
+		assertEquals(2, MenuSearchIndex.editDistance("dosa", "idli", 1));
+		assertEquals(3, MenuSearchIndex.editDistance("coffee", "lassi", 2));
+	}
+
+	@Test
+	void typosFindTheItem() {
+		MenuSearchIndex index = new MenuSearchIndex(items("Paneer Tikka", "Masala Dosa", "Veg Biryani"));
+
+		assertArrayEquals(new int[] { 0 }, index.search("panner", 10));
+		assertArrayEquals(new int[] { 2 }, index.search("biryain", 10));
+		assertArrayEquals(new int[] { 1 }, index.search("dossa", 10));
+	}
+
+	@Test
+	void prefixMatchRanksAboveFuzzyMatch() {
+		// "pane" is a prefix of "paneer" and one edit from "pine"
+		MenuSearchIndex index = new MenuSearchIndex(items("Pine Juice", "Paneer Tikka"));
+
+		assertArrayEquals(new int[] { 1, 0 }, index.search("pane", 10));
+	}
+
+	@Test
+	void exactWordRanksAboveLongerPrefixMatch() {
+		MenuSearchIndex index = new MenuSearchIndex(items("Pancake", "Pan Pizza"));
+
+		assertArrayEquals(new int[] { 1, 0 }, index.search("pan", 10));
+	}
+
+	@Test
+	void moreQueryWordsMatchedRanksFirst() {
+		MenuSearchIndex index = new MenuSearchIndex(items("Masala Chai", "Masala Dosa", "Plain Dosa"));
+
+		int[] ranked = index.search("masala dosa", 10);
+
+		assertEquals(3, ranked.length);
+		assertEquals(1, ranked[0]);
+	}
+
+	@Test
+	void nameHitRanksAboveDescriptionHit() {
+		MenuItemDto[] items = items("Samosa", "Chole");
+		items[1].setDescription("Served with a samosa");
+		MenuSearchIndex index = new MenuSearchIndex(items);
+
+		assertArrayEquals(new int[] { 0, 1 }, index.search("samosa", 10));
+	}
+
+	@Test
+	void topResultsMatchTheFullRanking() {
+		List<String> names = new ArrayList<>();
+		for (int i = 0; i < 200; i++) {
+			names.add((i % 3 == 0 ? "Masala " : "Plain ") + (i % 2 == 0 ? "Dosa " : "Dose ") + i);
+		}
+		MenuSearchIndex index = new MenuSearchIndex(items(names.toArray(new String[0])));
+
+		int[] all = index.search("masala dosa", Integer.MAX_VALUE);
+		for (int limit : new int[] { 1, 5, 20, 32, 33 }) {
+			// Small limits take the bounded insertion path, larger ones the full sort
+			assertArrayEquals(Arrays.copyOf(all, limit), index.search("masala dosa", limit), "limit " + limit);
+		}
+	}
+
+	@Test
+	void noMatchOrNoLimitGivesNothing() {
+		MenuSearchIndex index = new MenuSearchIndex(items("Masala Dosa"));
+
+		assertEquals(0, index.search("coffee", 10).length);
+		assertEquals(0, index.search("dosa", 0).length);
+		assertEquals(0, index.search("  ", 10).length);
+	}
+
+	@Test
+	void snapshotSuggestionsStopAtTheLimit() {
+		List<MenuItemDto> source = new ArrayList<>();
+		for (int i = 0; i < 50; i++) {
+			source.add(item("i" + i, "Masala Dosa " + i));
+		}
+		MenuCatalog.Snapshot snapshot = new MenuCatalog.Snapshot(source);
+
+		assertEquals(20, snapshot.suggest("masala", 20).size());
+		assertTrue(snapshot.suggest("masala", 0).isEmpty());
+	}
+
+	private static MenuItemDto[] items(String... names) {
+		MenuItemDto[] items = new MenuItemDto[names.length];
+		for (int i = 0; i < names.length; i++) {
+			items[i] = item("i" + i, names[i]);
+		}
+		return items;
+	}
+
+	private static MenuItemDto item(String id, String name) {
+		MenuItemDto item = new MenuItemDto();
+		item.setItemId(id);
+		item.setItemName(name);
+		item.setCategoryId("c1");
+		item.setPrice(50.0);
+		return item;
+	}
+
+}
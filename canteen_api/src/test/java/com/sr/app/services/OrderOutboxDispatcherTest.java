@@ -0,0 +1,117 @@
+package com.sr.app.services;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+import org.json.JSONObject;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.razorpay.Order;
+import com.razorpay.OrderClient;
+import com.razorpay.RazorpayClient;
+import com.sr.app.constants.OutboxStatusConstants;
+import com.sr.app.models.OrderOutbox;
+import com.sr.app.respos.CartRepo;
+import com.sr.app.respos.OrderOutboxRepo;
+import com.sr.app.respos.OrderRepo;
+
+class OrderOutboxDispatcherTest {
+
+	private OrderOutboxRepo outboxRepo;
+
+	private OrderRepo orderRepo;
+
+	private CartRepo cartRepo;
+
+	private OrderClient orders;
+
+	private OrderOutbox entry;
+
+	private OrderOutboxDispatcher dispatcher;
+
+	@BeforeEach
+	void setUp() throws Exception {
+		outboxRepo = mock(OrderOutboxRepo.class);
+		orderRepo = mock(OrderRepo.class);
+		cartRepo = mock(CartRepo.class);
+		orders = mock(OrderClient.class);
+		RazorpayClient razorpayClient = mock(RazorpayClient.class);
+		razorpayClient.orders = orders;
+		when(orders.create(any(JSONObject.class))).thenReturn(new Order(new JSONObject().put("id", "order_new")));
+
+		entry = new OrderOutbox();
+		entry.setId("ob1");
+		entry.setOrderId("o1");
+		entry.setUserId("u1");
+		entry.setAmount(120.0);
+		entry.setStatus(OutboxStatusConstants.PROCESSING);
+		when(outboxRepo.findById("ob1")).thenReturn(Optional.of(entry));
+
+		dispatcher = new OrderOutboxDispatcher();
+		ReflectionTestUtils.setField(dispatcher, "outboxRepo", outboxRepo);
+		ReflectionTestUtils.setField(dispatcher, "orderRepo", orderRepo);
+		ReflectionTestUtils.setField(dispatcher, "cartRepo", cartRepo);
+		ReflectionTestUtils.setField(dispatcher, "razorpayClient", razorpayClient);
+		ReflectionTestUtils.setField(dispatcher, "maxAttempts", 8);
+		ReflectionTestUtils.setField(dispatcher, "backoffMs", 1000L);
+		ReflectionTestUtils.setField(dispatcher, "leaseMs", 180_000L);
+	}
+
+	@Test
+	void gatewayOrderIsStoredOnTheOrderBeforeTheCartIsCleared() throws Exception {
+		when(orderRepo.setRazorpayOrderId(eq("o1"), eq("order_new"), any(LocalDateTime.class))).thenReturn(1);
+		doThrow(new IllegalStateException("db down")).when(cartRepo).deleteByUser("u1");
+
+		ReflectionTestUtils.invokeMethod(dispatcher, "process", "ob1");
+
+		verify(orderRepo).setRazorpayOrderId(eq("o1"), eq("order_new"), any(LocalDateTime.class));
+		assertEquals(OutboxStatusConstants.PENDING, entry.getStatus());
+		assertEquals("order_new", entry.getRazorpayOrderId());
+	}
+
+	@Test
+	void retryReusesTheGatewayOrderStoredOnTheOrder() throws Exception {
+		// A previous attempt stored it and then died before saving the outbox row
+		when(orderRepo.findRazorpayOrderIdByOrderId("o1")).thenReturn("order_first");
+
+		ReflectionTestUtils.invokeMethod(dispatcher, "process", "ob1");
+
+		verify(orders, never()).create(any(JSONObject.class));
+		assertEquals("order_first", entry.getRazorpayOrderId());
+		assertEquals(OutboxStatusConstants.DONE, entry.getStatus());
+	}
+
+	@Test
+	void dispatcherThatLostTheRaceAdoptsTheStoredGatewayOrder() {
+		when(orderRepo.findRazorpayOrderIdByOrderId("o1")).thenReturn(null, "order_other");
+		when(orderRepo.setRazorpayOrderId(eq("o1"), eq("order_new"), any(LocalDateTime.class))).thenReturn(0);
+
+		ReflectionTestUtils.invokeMethod(dispatcher, "process", "ob1");
+
+		ArgumentCaptor<OrderOutbox> saved = ArgumentCaptor.forClass(OrderOutbox.class);
+		verify(outboxRepo).save(saved.capture());
+		assertEquals("order_other", saved.getValue().getRazorpayOrderId());
+		assertEquals(OutboxStatusConstants.DONE, saved.getValue().getStatus());
+	}
+
+	@Test
+	void leaseShorterThanTheGatewayTimeoutIsRejected() {
+		ReflectionTestUtils.setField(dispatcher, "leaseMs", 60_000L);
+
+		assertThrows(IllegalStateException.class, () -> dispatcher.checkLease());
+	}
+
+}
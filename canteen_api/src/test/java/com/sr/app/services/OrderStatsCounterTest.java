@@ -0,0 +1,86 @@
+package com.sr.app.services;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.data.redis.core.HashOperations;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.sr.app.response.OrdersCountsResponse;
+import com.sr.app.respos.OrderRepo;
+
+class OrderStatsCounterTest {
+
+	private HashOperations<String, Object, Object> hash;
+
+	private OrderRepo orderRepo;
+
+	private OrderStatsCounter counter;
+
+	@BeforeEach
+	@SuppressWarnings("unchecked")
+	void setUp() {
+		StringRedisTemplate redisTemplate = mock(StringRedisTemplate.class);
+		hash = mock(HashOperations.class);
+		when(redisTemplate.opsForHash()).thenReturn(hash);
+		orderRepo = mock(OrderRepo.class);
+		when(orderRepo.countGroupByStatus()).thenReturn(List.of(
+				new Object[] { "PENDING", 4L }, new Object[] { "DELIVERED", 90L }, new Object[] { "CANCELLED", 6L }));
+
+		counter = new OrderStatsCounter();
+		ReflectionTestUtils.setField(counter, "redisTemplate", redisTemplate);
+		ReflectionTestUtils.setField(counter, "orderRepo", orderRepo);
+	}
+
+	@Test
+	void partialHashLeftByAnIncrementAfterAFlushIsReconciled() {
+		// HINCRBY after a flush: only the fields of one create
+		when(hash.entries("order:stats")).thenReturn(Map.of("TOTAL", "1", "PENDING", "1"));
+
+		OrdersCountsResponse stats = counter.snapshot();
+
+		assertEquals(100L, stats.getTotalOrders());
+		assertEquals(4L, stats.getPending());
+		assertEquals(90L, stats.getDelivered());
+		assertEquals(6L, stats.getCancelled());
+	}
+
+	@Test
+	@SuppressWarnings("unchecked")
+	void reconcileMarksTheHashComplete() {
+		counter.reconcile();
+
+		ArgumentCaptor<Map<String, String>> values = ArgumentCaptor.forClass(Map.class);
+		verify(hash).putAll(eq("order:stats"), values.capture());
+		assertEquals("100", values.getValue().get("TOTAL"));
+		assertEquals("0", values.getValue().get("FAILED"));
+		assertTrue(values.getValue().containsKey("RECONCILED"));
+	}
+
+	@Test
+	void reconciledHashIsServedWithoutTheDatabase() {
+		when(hash.entries("order:stats")).thenReturn(Map.of("TOTAL", "101", "PENDING", "5", "DELIVERED", "90",
+				"CANCELLED", "6", "PAID", "0", "PREPARING", "0", "FAILED", "0", "RECONCILED", "1760000000000"));
+
+		OrdersCountsResponse stats = counter.snapshot();
+
+		assertEquals(101L, stats.getTotalOrders());
+		assertEquals(5L, stats.getPending());
+		verify(orderRepo, never()).countGroupByStatus();
+		verify(hash, never()).putAll(eq("order:stats"), anyMap());
+	}
+
+}
@@ -0,0 +1,100 @@
+package com.sr.app.services;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyDouble;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.Set;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.RedisConnectionFailureException;
+import org.springframework.data.redis.connection.DefaultMessage;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ZSetOperations;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.test.util.ReflectionTestUtils;
+
+class TokenRevocationTest {
+
+	private static final String KEY = "auth:revoked";
+
+	private ZSetOperations<String, String> zset;
+
+	private TokenRevocation revocation;
+
+	@BeforeEach
+	@SuppressWarnings("unchecked")
+	void setUp() {
+		StringRedisTemplate redisTemplate = mock(StringRedisTemplate.class);
+		zset = mock(ZSetOperations.class);
+		when(redisTemplate.opsForZSet()).thenReturn(zset);
+		// Exact checks only answer for what Redis really holds
+		when(zset.score(eq(KEY), anyString())).thenReturn(null);
+
+		revocation = new TokenRevocation();
+		ReflectionTestUtils.setField(revocation, "redisTemplate", redisTemplate);
+		ReflectionTestUtils.setField(revocation, "listenerContainer", mock(RedisMessageListenerContainer.class));
+		ReflectionTestUtils.setField(revocation, "falsePositiveRate", 0.001);
+		revocation.start();
+	}
+
+	@Test
+	void revocationHeardWhileSyncReadsRedisSurvivesTheRebuild() {
+		when(zset.score(KEY, "late")).thenReturn(1.0);
+		// The message arrives after the rebuild read the set, which doesn't have it yet
+		when(zset.range(KEY, 0, -1)).thenAnswer(invocation -> {
+			revocation.onMessage(message("late"), null);
+			return Set.of("early");
+		});
+
+		revocation.sync();
+
+		assertTrue(revocation.isRevoked("late"));
+	}
+
+	@Test
+	void syncDropsTokensNoLongerInRedis() {
+		revocation.onMessage(message("expired"), null);
+		when(zset.range(KEY, 0, -1)).thenReturn(Set.of());
+
+		revocation.sync();
+
+		assertFalse(revocation.isRevoked("expired"));
+		// A filter miss never reaches Redis
+		verify(zset, never()).score(KEY, "expired");
+	}
+
+	@Test
+	void failedSyncKeepsTheCurrentFilterAndStopsBufferingMessages() {
+		when(zset.score(KEY, "kept")).thenReturn(1.0);
+		revocation.onMessage(message("kept"), null);
+		when(zset.removeRangeByScore(eq(KEY), anyDouble(), anyDouble()))
+				.thenThrow(new RedisConnectionFailureException("down"));
+
+		revocation.sync();
+
+		assertTrue(revocation.isRevoked("kept"));
+		assertNull(ReflectionTestUtils.getField(revocation, "heardDuringRebuild"));
+	}
+
+	@Test
+	void filterHitIsRevokedWhenRedisCannotConfirm() {
+		revocation.onMessage(message("jti-1"), null);
+		when(zset.score(KEY, "jti-1")).thenThrow(new RedisConnectionFailureException("down"));
+
+		assertTrue(revocation.isRevoked("jti-1"));
+	}
+
+	private static DefaultMessage message(String jti) {
+		return new DefaultMessage(KEY.getBytes(), jti.getBytes());
+	}
+
+}
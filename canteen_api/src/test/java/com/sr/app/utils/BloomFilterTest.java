@@ -0,0 +1,90 @@
+package com.sr.app.utils;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.jupiter.api.Test;
+
+class BloomFilterTest {
+
+	@Test
+	void neverMissesAnAddedValue() {
+		BloomFilter filter = new BloomFilter(10_000, 0.001);
+		List<String> added = new ArrayList<>();
+		for (int i = 0; i < 10_000; i++) {
+			String value = UUID.randomUUID().toString();
+			filter.add(value);
+			added.add(value);
+		}
+		for (String value : added) {
+			assertTrue(filter.mightContain(value), value);
+		}
+	}
+
+	@Test
+	void concurrentAddsAreAllKept() throws Exception {
+		BloomFilter filter = new BloomFilter(40_000, 0.001);
+		ExecutorService pool = Executors.newFixedThreadPool(4);
+		try {
+			List<Future<?>> adds = new ArrayList<>();
+			for (int t = 0; t < 4; t++) {
+				int thread = t;
+				adds.add(pool.submit(() -> {
+					for (int i = 0; i < 10_000; i++) {
+						filter.add(thread + "-" + i);
+					}
+				}));
+			}
+			for (Future<?> add : adds) {
+				add.get();
+			}
+		} finally {
+			pool.shutdown();
+		}
+		for (int t = 0; t < 4; t++) {
+			for (int i = 0; i < 10_000; i++) {
+				assertTrue(filter.mightContain(t + "-" + i));
+			}
+		}
+	}
+
+	@Test
+	void falsePositiveRateStaysNearTheConfiguredRateAtCapacity() {
+		assertRateAtCapacity(10_000, 0.01);
+		assertRateAtCapacity(10_000, 0.001);
+		// Sequential, similar values, like the jtis the filter holds
+		assertRateAtCapacity(100_000, 0.001);
+	}
+
+	@Test
+	void emptyFilterContainsNothing() {
+		BloomFilter filter = new BloomFilter(1024, 0.001);
+		for (int i = 0; i < 1_000; i++) {
+			assertFalse(filter.mightContain("jti-" + i));
+		}
+	}
+
+	private static void assertRateAtCapacity(int capacity, double rate) {
+		BloomFilter filter = new BloomFilter(capacity, rate);
+		for (int i = 0; i < capacity; i++) {
+			filter.add("added-" + i);
+		}
+		int probes = 1_000_000;
+		int hits = 0;
+		for (int i = 0; i < probes; i++) {
+			if (filter.mightContain("absent-" + i)) {
+				hits++;
+			}
+		}
+		double observed = (double) hits / probes;
+		assertTrue(observed <= rate * 1.5, "false positive rate " + observed + " for configured " + rate);
+	}
+
+}
@@ -0,0 +1,132 @@
+package com.sr.app.utils;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.math.BigInteger;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.IntStream;
+
+import org.junit.jupiter.api.Test;
+
+class IdGenerationTest {
+
+	private static final String CROCKFORD = "0123456789ABCDEFGHJKMNPQRSTVWXYZ";
+
+	@Test
+	void encodesTheLowestAndHighestValues() {
+		assertEquals("00000000000000000000000000", IdGeneration.encode(0, 0));
+		// The first digit only carries the top 3 bits
+		assertEquals("7ZZZZZZZZZZZZZZZZZZZZZZZZZ", IdGeneration.encode(-1, -1));
+	}
+
+	@Test
+	void digitsStraddlingTheTwoHalvesAreEncoded() {
+		// Digit 13 holds bits 60-64: the top of lo and the bottom bit of hi
+		assertEquals("00000000000008000000000000", IdGeneration.encode(0, Long.MIN_VALUE));
+		assertEquals("0000000000000G000000000000", IdGeneration.encode(1, 0));
+	}
+
+	@Test
+	void encodingMatchesBase32OfThe128BitValue() {
+		Random random = new Random(42);
+		for (int i = 0; i < 10_000; i++) {
+			long hi = random.nextLong();
+			long lo = random.nextLong();
+			assertEquals(reference(hi, lo), IdGeneration.encode(hi, lo));
+		}
+	}
+
+	@Test
+	void encodedOrderIsNumericOrder() {
+		Random random = new Random(7);
+		for (int i = 0; i < 10_000; i++) {
+			BigInteger a = unsigned(random.nextLong(), random.nextLong());
+			BigInteger b = unsigned(random.nextLong(), random.nextLong());
+			String ea = IdGeneration.encode(a.shiftRight(64).longValue(), a.longValue());
+			String eb = IdGeneration.encode(b.shiftRight(64).longValue(), b.longValue());
+			assertEquals(Integer.signum(a.compareTo(b)), Integer.signum(ea.compareTo(eb)));
+		}
+	}
+
+	@Test
+	void idsIncreaseStrictlyOnOneThread() {
+		String previous = IdGeneration.newId();
+		for (int i = 0; i < 200_000; i++) {
+			String next = IdGeneration.newId();
+			assertTrue(next.compareTo(previous) > 0, previous + " then " + next);
+			previous = next;
+		}
+	}
+
+	@Test
+	void idsAreUniqueAcrossThreads() throws Exception {
+		Set<String> seen = ConcurrentHashMap.newKeySet();
+		ExecutorService pool = Executors.newFixedThreadPool(8);
+		try {
+			List<Future<?>> tasks = IntStream.range(0, 8)
+					.mapToObj(t -> pool.submit(() -> {
+						for (int i = 0; i < 50_000; i++) {
+							assertTrue(seen.add(IdGeneration.newId()));
+						}
+					}))
+					.<Future<?>>map(f -> f)
+					.toList();
+			for (Future<?> task : tasks) {
+				task.get();
+			}
+		} finally {
+			pool.shutdown();
+		}
+		assertEquals(400_000, seen.size());
+	}
+
+	@Test
+	void idsCarryTheCurrentTimeAndVersion7() {
+		long before = System.currentTimeMillis();
+		String id = IdGeneration.newId();
+		long after = System.currentTimeMillis();
+
+		assertEquals(26, id.length());
+		Set<Character> alphabet = new HashSet<>();
+		CROCKFORD.chars().forEach(c -> alphabet.add((char) c));
+		id.chars().forEach(c -> assertTrue(alphabet.contains((char) c), id));
+
+		BigInteger value = decode(id);
+		long millis = value.shiftRight(80).longValue();
+		// Borrowed milliseconds may run slightly ahead of the clock
+		assertTrue(millis >= before && millis <= after + 1000, id);
+		assertEquals(7, value.shiftRight(76).intValue() & 0xF);
+		assertEquals(2, value.shiftRight(62).intValue() & 0x3);
+	}
+
+	private static BigInteger unsigned(long hi, long lo) {
+		return new BigInteger(Long.toUnsignedString(hi)).shiftLeft(64).or(new BigInteger(Long.toUnsignedString(lo)));
+	}
+
+	private static String reference(long hi, long lo) {
+		StringBuilder out = new StringBuilder();
+		BigInteger value = unsigned(hi, lo);
+		for (int i = 0; i < 26; i++) {
+			out.insert(0, CROCKFORD.charAt(value.intValue() & 31));
+			value = value.shiftRight(5);
+		}
+		return out.toString();
+	}
+
+	private static BigInteger decode(String id) {
+		BigInteger value = BigInteger.ZERO;
+		for (char c : id.toCharArray()) {
+			value = value.shiftLeft(5).or(BigInteger.valueOf(CROCKFORD.indexOf(c)));
+		}
+		return value;
+	}
+
+}
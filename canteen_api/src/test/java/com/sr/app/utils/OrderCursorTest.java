@@ -0,0 +1,72 @@
+package com.sr.app.utils;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+
+import com.sr.app.exception.AppException;
+
+class OrderCursorTest {
+
+	@Test
+	void roundTripsCreatedAtAndOrderId() {
+		OrderCursor cursor = new OrderCursor(LocalDateTime.of(2025, 1, 31, 23, 59, 59, 123_456_789), "01JH7Z3K8Q4W2M5N6P7R8S9T0V");
+
+		assertEquals(cursor, OrderCursor.decode(cursor.encode()));
+	}
+
+	@Test
+	void roundTripsWholeMinutesAndSeparatorsInTheOrderId() {
+		// LocalDateTime.toString drops zero seconds, and only the first '|' splits
+		OrderCursor cursor = new OrderCursor(LocalDateTime.of(2025, 1, 1, 10, 0), "a|b");
+
+		assertEquals(cursor, OrderCursor.decode(cursor.encode()));
+	}
+
+	@Test
+	void encodingIsUrlSafeWithoutPadding() {
+		for (int i = 0; i < 200; i++) {
+			String encoded = new OrderCursor(LocalDateTime.of(2025, 6, 1, 12, 0).plusNanos(i * 7_919_000L), "order-" + i).encode();
+			assertFalse(encoded.matches(".*[+/=].*"), encoded);
+		}
+	}
+
+	@Test
+	void tamperedCursorsAreBadRequests() {
+		String valid = new OrderCursor(LocalDateTime.of(2025, 1, 31, 10, 15, 30), "o1").encode();
+
+		assertBadRequest(valid.substring(0, valid.length() - 3) + "!!!");
+		assertBadRequest(raw("2025-13-01T10:15:30|o1"));
+		assertBadRequest(raw("yesterday|o1"));
+		assertBadRequest(raw("2025-01-31T10:15:30"));
+		assertBadRequest(raw("2025-01-31T10:15:30|"));
+		assertBadRequest(raw("|o1"));
+	}
+
+	@Test
+	void malformedInputIsABadRequest() {
+		assertBadRequest("");
+		assertBadRequest("not base64 at all");
+		assertBadRequest("abc=def");
+		assertBadRequest(null);
+		// Standard base64 alphabet is not accepted
+		assertBadRequest(Base64.getEncoder().encodeToString("2025-01-31T10:15:30|~~~".getBytes(StandardCharsets.UTF_8)));
+	}
+
+	private static String raw(String value) {
+		return Base64.getUrlEncoder().withoutPadding().encodeToString(value.getBytes(StandardCharsets.UTF_8));
+	}
+
+	private static void assertBadRequest(String cursor) {
+		AppException e = assertThrows(AppException.class, () -> OrderCursor.decode(cursor), String.valueOf(cursor));
+		assertEquals(HttpStatus.BAD_REQUEST, e.getHttpStatus());
+	}
+
+}
@@ -92,6 +92,15 @@ const Layout = ({ children }) => {
   }
 
   const handleLogout = () => {
+    // Revoke the token server-side too, otherwise it stays valid until it expires
+    const token = localStorage.getItem("authToken")
+    if (token) {
+      fetch(`${process.env.NEXT_PUBLIC_API_URL}/api/v1/auth/logout`, {
+        method: 'POST',
+        headers: { Authorization: `Bearer ${token}` }
+      }).catch(() => {})
+    }
+
     // Remove tokens from localStorage
     localStorage.removeItem("authToken")
     localStorage.removeItem("role")
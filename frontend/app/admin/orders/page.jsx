@@ -21,9 +21,11 @@ import {
   FaPhone,
   FaEnvelope,
   FaEdit,
-  FaSync
+  FaSync,
+  FaUtensils
 } from 'react-icons/fa';
 import toast from 'react-hot-toast';
+import { subscribeOrderEvents } from '@/utils/orderStream';
 
 const API_URL = process.env.NEXT_PUBLIC_API_URL;
 
@@ -41,6 +43,12 @@ const statusConfig = {
     icon: FaCreditCard,
     iconColor: 'text-blue-500'
   },
+  PREPARING: { 
+    label: 'Preparing', 
+    color: 'bg-orange-50 text-orange-700 border-orange-200',
+    icon: FaUtensils,
+    iconColor: 'text-orange-500'
+  },
   CANCELLED: { 
     label: 'Cancelled', 
     color: 'bg-red-50 text-red-700 border-red-200',
@@ -61,8 +69,15 @@ const statusConfig = {
   }
 };
 
-// All available statuses for dropdown
-const allStatuses = ['PENDING', 'PAID', 'CANCELLED', 'DELIVERED', 'FAILED'];
+// Transitions the backend accepts (PENDING -> PAID -> PREPARING -> DELIVERED)
+const nextStatuses = {
+  PENDING: ['PAID', 'CANCELLED', 'FAILED'],
+  PAID: ['PREPARING', 'CANCELLED'],
+  PREPARING: ['DELIVERED', 'CANCELLED'],
+  DELIVERED: [],
+  CANCELLED: [],
+  FAILED: []
+};
 
 // Stats Skeleton Component
 const StatsSkeleton = () => {
@@ -239,9 +254,8 @@ const StatusUpdateDropdown = ({ order, onStatusUpdate }) => {
   const [isOpen, setIsOpen] = useState(false);
   const currentStatus = statusConfig[order.status];
 
-  // Get all statuses except the current one
-  const availableStatuses = allStatuses
-    .filter(status => status !== order.status)
+  // Only statuses the order can move to from its current one
+  const availableStatuses = (nextStatuses[order.status] || [])
     .map(status => ({
       value: status,
       ...statusConfig[status]
@@ -328,6 +342,7 @@ const StatusDropdown = ({ currentStatus, onStatusChange }) => {
     { value: '', label: 'All Orders' },
     { value: 'pending', label: 'Pending' },
     { value: 'paid', label: 'Paid' },
+    { value: 'preparing', label: 'Preparing' },
     { value: 'cancelled', label: 'Cancelled' },
     { value: 'delivered', label: 'Delivered' },
     { value: 'failed', label: 'Failed' }
@@ -564,6 +579,70 @@ const OrderCard = ({ orderData, onStatusUpdate }) => {
   );
 };
 
+// Live order events applied to the cached board lists (query key ['orders', statusFilter])
+// so a new order or a status change doesn't send every admin screen back to the DB.
+const newestFirst = (a, b) => new Date(b.order.createdAt) - new Date(a.order.createdAt);
+
+const applyOrderEvent = (queryClient, type, event) => {
+  const lists = queryClient.getQueriesData({ queryKey: ['orders'] });
+
+  if (type === 'ORDER_CREATED' && event.order) {
+    const entry = { order: event.order, user: event.user || {} };
+    lists.forEach(([queryKey, data]) => {
+      const filter = queryKey[1];
+      if (!data?.pages?.length || (filter && filter !== event.order.status)) return;
+      const loaded = data.pages.some(page => page.data.content.some(o => o.order.orderId === event.order.orderId));
+      if (loaded) return;
+      queryClient.setQueryData(queryKey, {
+        ...data,
+        pages: data.pages.map((page, i) => i > 0 ? page : {
+          ...page,
+          data: { ...page.data, content: [entry, ...page.data.content] }
+        })
+      });
+    });
+  }
+
+  if (type === 'STATUS_CHANGED') {
+    const ids = new Set(event.orderIds);
+    // Orders moving into a filtered list are copied from any other list that has them
+    const known = new Map();
+    lists.forEach(([, data]) => data?.pages?.forEach(page => page.data.content.forEach(o => {
+      if (ids.has(o.order.orderId)) {
+        known.set(o.order.orderId, { ...o, order: { ...o.order, status: event.status, updatedAt: event.occurredAt } });
+      }
+    })));
+
+    lists.forEach(([queryKey, data]) => {
+      const filter = queryKey[1];
+      if (!data?.pages?.length) return;
+      const keep = !filter || filter === event.status;
+      const pages = data.pages.map(page => ({
+        ...page,
+        data: {
+          ...page.data,
+          content: page.data.content
+            .filter(o => keep || !ids.has(o.order.orderId))
+            .map(o => known.get(o.order.orderId) || o)
+        }
+      }));
+      if (filter === event.status) {
+        const present = new Set(pages.flatMap(page => page.data.content.map(o => o.order.orderId)));
+        const arriving = [...known.values()].filter(o => !present.has(o.order.orderId));
+        if (arriving.length > 0) {
+          pages[0] = { ...pages[0], data: { ...pages[0].data, content: [...arriving, ...pages[0].data.content].sort(newestFirst) } };
+        }
+      }
+      queryClient.setQueryData(queryKey, { ...data, pages });
+    });
+  }
+
+  // Counts as the server had them right after this event
+  if (event.stats) {
+    queryClient.setQueryData(['order-stats'], (old) => old ? { ...old, data: event.stats } : old);
+  }
+};
+
 const Page = () => {
   const searchParams = useSearchParams();
   const [status, setStatus] = useState(searchParams.get('status') || '');
@@ -684,6 +763,18 @@ const Page = () => {
     refetch();
   }, [status, refetch]);
 
+  // Live updates go straight into the cache; only a gap in the stream (RESYNC) refetches
+  useEffect(() => {
+    return subscribeOrderEvents(API_URL, (type, event) => {
+      if (type === 'RESYNC') {
+        queryClient.invalidateQueries({ queryKey: ['orders'] });
+        queryClient.invalidateQueries({ queryKey: ['order-stats'] });
+        return;
+      }
+      applyOrderEvent(queryClient, type, event);
+    });
+  }, [queryClient]);
+
   // Infinite scroll handler
   useEffect(() => {
     const handleScroll = () => {
@@ -698,7 +789,9 @@ const Page = () => {
     return () => window.removeEventListener('scroll', handleScroll);
   }, [isFetchingNextPage, hasNextPage, fetchNextPage]);
 
-  const allOrders = data?.pages.flatMap(page => page.data.content) || [];
+  // Offset pages fetched after a live insert can repeat an order already shown
+  const allOrders = (data?.pages.flatMap(page => page.data.content) || [])
+    .filter((orderData, i, list) => list.findIndex(o => o.order.orderId === orderData.order.orderId) === i);
 
   return (
     <div className="min-h-screen bg-white">
@@ -1,7 +1,7 @@
 // app/user/cart/checkout/page.jsx
 "use client";
 
-import React, { useState, useEffect } from 'react';
+import React, { useState, useEffect, useRef } from 'react';
 import { useQuery } from '@tanstack/react-query';
 import axios from 'axios';
 import { 
@@ -32,15 +32,32 @@ const getCart = async () => {
 };
 
 // API function to create order
-const createOrder = async (orderData) => {
+const createOrder = async (orderData, idempotencyKey) => {
   const response = await axios.post(`${API_URL}/api/v1/orders/secure/create`, orderData, {
     headers: {
-      "Authorization": `Bearer ${localStorage.getItem("authToken")}`
+      "Authorization": `Bearer ${localStorage.getItem("authToken")}`,
+      "Idempotency-Key": idempotencyKey
     }
   });
   return response.data;
 };
 
+// API function to poll until the backend has created the Razorpay order
+const waitForRazorpayOrder = async (orderId) => {
+  for (let attempt = 0; attempt < 30; attempt++) {
+    const response = await axios.get(`${API_URL}/api/v1/orders/secure/${orderId}/payment`, {
+      headers: {
+        "Authorization": `Bearer ${localStorage.getItem("authToken")}`
+      }
+    });
+    const { status, razorpayOrderId } = response.data.data;
+    if (status === 'READY') return razorpayOrderId;
+    if (status === 'FAILED') break;
+    await new Promise((resolve) => setTimeout(resolve, 500));
+  }
+  throw new Error('Payment system is busy. Please try again.');
+};
+
 // API function to cancel order
 const cancelOrder = async (orderId) => {
   const response = await axios.post(`${API_URL}/api/v1/orders/secure/${orderId}/cancel`, {}, {
@@ -85,6 +102,7 @@ const CheckoutPage = () => {
   const [razorpayLoaded, setRazorpayLoaded] = useState(false);
   const [isLoadingRazorpay, setIsLoadingRazorpay] = useState(false);
   const [createdOrderId, setCreatedOrderId] = useState(null);
+  const orderKeyRef = useRef(null);
   const [showCancelModal, setShowCancelModal] = useState(false);
   const [pendingNavigation, setPendingNavigation] = useState(null);
 
@@ -258,13 +276,19 @@ const CheckoutPage = () => {
         totalAmount: totalPrice
       };
 
-      const orderResponse = await createOrder(orderData);
+      // Same key for every retry of this checkout, so a repeated tap returns the same order
+      if (!orderKeyRef.current) {
+        orderKeyRef.current = crypto.randomUUID();
+      }
+      const orderResponse = await createOrder(orderData, orderKeyRef.current);
       const orderId = orderResponse.data.orderId;
-      const razorpayOrderId = orderResponse.data.razorpayOrderId;
+      orderKeyRef.current = null;
       
       // Store the created order ID
       setCreatedOrderId(orderId);
 
+      const razorpayOrderId = orderResponse.data.razorpayOrderId || await waitForRazorpayOrder(orderId);
+
       // Step 2: Check if Razorpay is loaded
       if (!window.Razorpay) {
         throw new Error('Payment system is not ready. Please try again.');
@@ -288,7 +312,8 @@ const CheckoutPage = () => {
               orderId: orderId
             }, {
               headers: {
-                "Authorization": `Bearer ${localStorage.getItem("authToken")}`
+                "Authorization": `Bearer ${localStorage.getItem("authToken")}`,
+                "Idempotency-Key": `verify-${response.razorpay_payment_id}`
               }
             });
 
@@ -0,0 +1,78 @@
+// utils/orderStream.js
+// Live order events from /orders/secure/admin/stream. EventSource can't send the
+// Authorization header, so the stream is read with fetch and parsed here.
+// Reconnects resume from the last event id through ?since=; the server sends
+// RESYNC when it can't replay the gap.
+export const subscribeOrderEvents = (apiUrl, onEvent) => {
+  const controller = new AbortController();
+  let lastId = null;
+  let retryMs = 1000;
+  let connectedBefore = false;
+
+  const dispatch = (frame) => {
+    let id = null;
+    let name = 'message';
+    const data = [];
+    for (const line of frame.split('\n')) {
+      if (line.startsWith(':')) continue; // heartbeat comment
+      const colon = line.indexOf(':');
+      const field = colon === -1 ? line : line.slice(0, colon);
+      const value = colon === -1 ? '' : line.slice(colon + 1).replace(/^ /, '');
+      if (field === 'id') id = Number(value);
+      else if (field === 'event') name = value;
+      else if (field === 'data') data.push(value);
+    }
+    if (id !== null && !Number.isNaN(id)) {
+      lastId = lastId === null ? id : Math.max(lastId, id);
+    }
+    if (data.length > 0) {
+      onEvent(name, JSON.parse(data.join('\n')));
+    }
+  };
+
+  const connect = async () => {
+    while (!controller.signal.aborted) {
+      try {
+        const params = lastId !== null ? `?since=${lastId}` : '';
+        const response = await fetch(`${apiUrl}/api/v1/orders/secure/admin/stream${params}`, {
+          headers: {
+            "Authorization": `Bearer ${localStorage.getItem("authToken")}`,
+            "Accept": "text/event-stream"
+          },
+          signal: controller.signal
+        });
+        if (!response.ok || !response.body) {
+          throw new Error(`Order stream failed with ${response.status}`);
+        }
+        retryMs = 1000;
+        // No event id to resume from, so whatever happened while disconnected is unknown
+        if (connectedBefore && lastId === null) {
+          onEvent('RESYNC', {});
+        }
+        connectedBefore = true;
+
+        const reader = response.body.getReader();
+        const decoder = new TextDecoder();
+        let buffer = '';
+        for (;;) {
+          const { done, value } = await reader.read();
+          if (done) break;
+          buffer += decoder.decode(value, { stream: true }).replace(/\r\n?/g, '\n');
+          let end;
+          while ((end = buffer.indexOf('\n\n')) !== -1) {
+            dispatch(buffer.slice(0, end));
+            buffer = buffer.slice(end + 2);
+          }
+        }
+      } catch (error) {
+        if (controller.signal.aborted) return;
+        console.error('Order stream disconnected:', error);
+      }
+      await new Promise((resolve) => setTimeout(resolve, retryMs));
+      retryMs = Math.min(retryMs * 2, 30000);
+    }
+  };
+
+  connect();
+  return () => controller.abort();
+};